@@ -0,0 +1,48 @@
+package translator.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.Atom;
+import translator.termworks.syntax.operands.AbsoluteExpr;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AbsoluteExprBenchmark {
+	private final static String[] expressions = {
+		"- 11000000b + 10000000b",
+		"125*2 - 10 + 25/5 + 89",
+		"((4 + 2)*5 - 101b + 064h)/31q",
+		"0 + (-1)*14*(-1) + 0",
+		"((9 mod 2 + 0fh) mod 17 ) mod ( -1 + 4 * 3 - ( 4 / 2) )",
+		"((((1 + 2) * (3 + 4)) - ((5 - 6) * (7 + 8))) mod (((9 + 10) * 11) / (12 - (13 - 14))))"
+	};
+	
+	@Param({"0", "1", "2", "3", "4", "5"})
+	public int expression;
+	
+	private ArrayList < Atom > atoms;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		Workload.resetTranslator();
+		ParsedLine line = Workload.lexLines(expressions[expression]).get(0);
+		atoms = line.subArray(0);
+	}
+	
+	// calc() fixes unary operators and then evaluates expression
+	@Benchmark
+	public Atom evalAbsoluteExpr() {
+		AbsoluteExpr expr = new AbsoluteExpr(new ArrayList < Atom > (atoms));
+		expr.calc();
+		return expr.searchedPosAtom();
+	}
+}
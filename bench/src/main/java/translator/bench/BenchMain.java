@@ -0,0 +1,20 @@
+package translator.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// JMH launcher which writes results as JSON unless other result format is asked for
+public class BenchMain {
+	private final static String DEFAULT_RESULT = "jmh-result.json";
+	
+	public static void main(String[] args) throws Exception {
+		ArrayList < String > jmhArgs = new ArrayList < String > (Arrays.asList(args));
+		if ( !jmhArgs.contains("-rf") && !jmhArgs.contains("-rff") ) {
+			jmhArgs.add("-rf");
+			jmhArgs.add("json");
+			jmhArgs.add("-rff");
+			jmhArgs.add(DEFAULT_RESULT);
+		}
+		org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[jmhArgs.size()]));
+	}
+}
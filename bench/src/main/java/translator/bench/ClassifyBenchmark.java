@@ -0,0 +1,64 @@
+package translator.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import translator.Translator;
+import translator.lexer.Lexer;
+import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
+import translator.termworks.TermIterator;
+
+// Per-line classification, the same checks term iterators make on every line.
+// Lines hold atoms of many classes, so getType() and searchedPosAtom() are called
+// on a mix of receivers as they are in real passes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassifyBenchmark {
+	private ArrayList < ParsedLine > lines;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		Workload.resetTranslator();
+		lines = new Lexer(Translator.mainTab,Workload.scaled(10)).getTerm();
+	}
+
+	@Benchmark
+	public int classifyLines() {
+		int commands = 0;
+		for ( ParsedLine line : lines ) {
+			if ( line.startsWith(TermIterator.labelPattern) && line.atomsSize() == 1 )
+				continue;
+			if ( line.firstIndexOf(AtomType.Directive) != -1 )
+				continue;
+			if ( line.startsWith(TermIterator.labelCmdPattern) | line.startsWith(TermIterator.cmdPattern) )
+				commands++;
+		}
+		return commands;
+	}
+
+	@Benchmark
+	public void countTypes(Blackhole hole) {
+		int[] counts = new int[AtomType.values().length];
+		for ( ParsedLine line : lines )
+			for ( Atom atom : line.getAtoms() )
+				counts[atom.getType().ordinal()]++;
+		hole.consume(counts);
+	}
+
+	@Benchmark
+	public void positionAtoms(Blackhole hole) {
+		for ( ParsedLine line : lines )
+			for ( Atom atom : line.getAtoms() )
+				hole.consume(atom.searchedPosAtom());
+	}
+}
@@ -0,0 +1,70 @@
+package translator.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import translator.Translator;
+import translator.lexer.Lexer;
+import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.AtomType;
+import translator.table.tablecomponents.userdefined.Segment;
+import translator.termworks.TermIterator;
+import translator.termworks.checker.GrammarChecker;
+import translator.termworks.generating.CommandListingGenerator;
+import translator.termworks.generating.ListingGenerator.SegmentInfo;
+import translator.termworks.layout.BranchRelaxer;
+import translator.termworks.syntax.Parser;
+import translator.termworks.views.FirstViewer;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncoderBenchmark {
+	private ArrayList < ParsedLine > commands;
+	private ArrayList < SegmentInfo > places;
+	private CommandListingGenerator generator;
+	
+	// source is translated up to listing generation, so all operands are resolved
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		Workload.resetTranslator();
+		File source = Workload.scaled(1);
+		Parser syn = new Parser(Translator.mainTab,new Lexer(Translator.mainTab,source).getTerm());
+		GrammarChecker checker = new GrammarChecker(Translator.errTab,Translator.mainTab);
+		checker.check(syn.getTerm(),GrammarChecker.AvailableChecks.FirsViewChecks);
+		FirstViewer firstViewer = new FirstViewer(Translator.mainTab);
+		firstViewer.view(syn.getTerm());
+		checker.check(firstViewer.getTerm(),GrammarChecker.AvailableChecks.SecondViewChecks);	// operands resolved by first view are only there
+		new BranchRelaxer(Translator.errTab).relax(firstViewer.getLayouts());
+		if ( Translator.errTab.isCritical() ) 
+			throw new IllegalStateException("Benchmark source has errors.");
+		
+		commands = new ArrayList < ParsedLine > ();
+		places = new ArrayList < SegmentInfo > ();
+		int segSize = 0;
+		for ( ParsedLine line : firstViewer.getTerm() ) {
+			if ( line.matches(TermIterator.defSegEndsPattern) ) 
+				segSize = ((Segment) line.getAtomAt(0)).getOffsetSize();
+			else if ( line.firstIndexOf(AtomType.Command) != -1 ) {
+				commands.add(line);
+				places.add(new SegmentInfo(0,segSize));
+			}
+		}
+		generator = new CommandListingGenerator();
+	}
+	
+	// every command of source is encoded once
+	@Benchmark
+	public void generate(Blackhole hole) {
+		for ( int i = 0; i < commands.size(); i++ ) 
+			hole.consume(generator.generate(commands.get(i),places.get(i)));
+	}
+}
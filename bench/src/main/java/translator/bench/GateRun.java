@@ -0,0 +1,27 @@
+package translator.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+import translator.Translator;
+
+// One measured translation, run by RegressionGate in its own JVM.
+// Prints elapsed nanoseconds and peak heap usage in bytes.
+public class GateRun {
+	
+	public static void main(String[] args) {
+		System.gc();
+		for ( MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans() ) 
+			if ( pool.getType() == MemoryType.HEAP ) pool.resetPeakUsage();
+		
+		long start = System.nanoTime();
+		Translator.main(new String[] { "-f", args[0], "-o", args[1] });
+		long elapsed = System.nanoTime() - start;
+		
+		long peakHeap = 0;
+		for ( MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans() ) 
+			if ( pool.getType() == MemoryType.HEAP ) peakHeap += pool.getPeakUsage().getUsed();
+		System.out.println(elapsed + " " + peakHeap);
+	}
+}
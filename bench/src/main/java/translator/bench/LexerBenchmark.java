@@ -0,0 +1,36 @@
+package translator.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import translator.Translator;
+import translator.lexer.Lexer;
+import translator.lexer.ParsedLine;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmark {
+	@Param({"1", "100", "1000"})
+	public int copies;
+	
+	private File source;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		Workload.resetTranslator();
+		source = Workload.scaled(copies);
+	}
+	
+	@Benchmark
+	public ArrayList < ParsedLine > tokenize() {
+		return new Lexer(Translator.mainTab,source).getTerm();
+	}
+}
@@ -0,0 +1,60 @@
+package translator.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.Atom;
+import translator.termworks.syntax.operands.MemoryOperand;
+import translator.termworks.syntax.operands.Operand;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperandBenchmark {
+	private final static String[] operands = {
+		"eax",
+		"0fffffh",
+		"(4 + 2)*5 - 101b",
+		"byte ptr gs:[edx + esi]",
+		"word ptr fs:[bx + di]",
+		"dword ptr es:[ebx][ecx]",
+		"es:[esp][ecx]",
+		"ds:[bx + di]"
+	};
+	
+	private ArrayList < ArrayList < Atom > > operandAtoms;
+	private ArrayList < ArrayList < Atom > > memoryAtoms;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		Workload.resetTranslator();
+		operandAtoms = new ArrayList < ArrayList < Atom > > ();
+		memoryAtoms = new ArrayList < ArrayList < Atom > > ();
+		for ( ParsedLine line : Workload.lexLines(operands) ) {
+			operandAtoms.add(line.subArray(0));
+			if ( MemoryOperand.isMemoryOperand(line.subArray(0)) ) 
+				memoryAtoms.add(line.subArray(0));
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(8)
+	public void makeOperand(Blackhole hole) {
+		for ( ArrayList < Atom > atoms : operandAtoms ) 
+			hole.consume(Operand.makeOperand(atoms));
+	}
+	
+	@Benchmark
+	public void memoryOperand(Blackhole hole) {
+		for ( ArrayList < Atom > atoms : memoryAtoms ) 
+			hole.consume(new MemoryOperand(atoms));
+	}
+}
@@ -0,0 +1,191 @@
+package translator.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Properties;
+
+// Translates generated sources of 10K, 100K and 1M lines and compares throughput and peak heap
+// with stored baseline. Every run is done in fresh JVM. Throughput of the fastest run
+// and median peak heap are compared, so one slowed down run doesn't fail the gate.
+// Exit status is 1 when any size regressed beyond tolerance.
+// Measured values depend on machine, so baseline keeps them per machine (architecture, processors,
+// java version and max heap). Machine without its baseline records one on the first run.
+//
+//	java -cp target/benchmarks.jar translator.bench.RegressionGate [options]
+//		-record			write measured values as new baseline of this machine
+//		-baseline [file]	baseline file, gate-baseline.properties by default
+//		-sizes [n,n,..]		numbers of lines
+//		-runs [n]		runs of every size
+//		-throughput [ratio]	allowed throughput drop, 0.15 by default
+//		-heap [ratio]		allowed peak heap growth, 0.20 by default
+public class RegressionGate {
+	private final static String DEFAULT_BASELINE = "gate-baseline.properties";
+	private final static double NANOS_IN_SEC = 1e9;
+	private final static double BYTES_IN_MB = 1024 * 1024;
+	
+	private File baselineFile = new File(DEFAULT_BASELINE);
+	private int[] sizes = { 10000, 100000, 1000000 };
+	private int runs = 3;
+	private double throughputTolerance = 0.15;
+	private double heapTolerance = 0.20;
+	private boolean record = false;
+	private File workDir;
+	
+	public static void main(String[] args) throws Exception {
+		RegressionGate gate = new RegressionGate();
+		gate.parseArgs(args);
+		System.exit( gate.run()?(0):(1) );
+	}
+	
+	private void parseArgs(String[] args) {
+		for ( int i = 0; i < args.length; i++ ) 
+			switch ( args[i] ) {
+				case "-record":
+					record = true;
+					break;
+				case "-baseline":
+					baselineFile = new File(args[++i]);
+					break;
+				case "-sizes":
+					sizes = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+					break;
+				case "-runs":
+					runs = Integer.parseInt(args[++i]);
+					break;
+				case "-throughput":
+					throughputTolerance = Double.parseDouble(args[++i]);
+					break;
+				case "-heap":
+					heapTolerance = Double.parseDouble(args[++i]);
+					break;
+				default:
+					throw new IllegalArgumentException("Unexpected argument : " + args[i]);
+			}
+	}
+	
+	private boolean run() throws IOException, InterruptedException {
+		Properties baseline = new Properties();
+		if ( baselineFile.exists() ) 
+			try (InputStream in = new FileInputStream(baselineFile)) {
+				baseline.load(in);
+			}
+		String machine = machine();
+		if ( !record && baseline.stringPropertyNames().stream().noneMatch( key -> key.startsWith(machine + ".") ) ) {
+			System.out.println("No baseline of " + machine + " in " + baselineFile + ", measured values are recorded.");
+			record = true;
+		}
+		
+		workDir = Files.createTempDirectory("gate").toFile();
+		boolean passed = true;
+		System.out.println(String.format("%-10s %14s %14s %14s %14s  %s",
+				"Lines","Lines/sec","Baseline","Peak heap MB","Baseline","Result"));
+		for ( int lines : sizes ) {
+			File source = new File(workDir,"gate-" + lines + ".asm");
+			new WorkloadGenerator(WorkloadGenerator.DEFAULT_SEED).generate(lines,source);
+			
+			long[] nanos = new long[runs];
+			long[] heaps = new long[runs];
+			for ( int i = 0; i < runs; i++ ) {
+				long[] result = translate(source);
+				nanos[i] = result[0];
+				heaps[i] = result[1];
+			}
+			double throughput = lines * NANOS_IN_SEC / Arrays.stream(nanos).min().getAsLong();
+			long peakHeap = median(heaps);
+			String throughputKey = machine + "." + lines + ".linesPerSec";
+			String heapKey = machine + "." + lines + ".peakHeapBytes";
+			
+			if ( record ) {
+				baseline.setProperty(throughputKey,String.format("%.0f",throughput));
+				baseline.setProperty(heapKey,Long.toString(peakHeap));
+				System.out.println(String.format("%-10d %14.0f %14s %14.1f %14s  %s",
+						lines,throughput,"",peakHeap / BYTES_IN_MB,"","recorded"));
+				continue;
+			}
+			
+			String baseThroughput = baseline.getProperty(throughputKey);
+			String baseHeap = baseline.getProperty(heapKey);
+			if ( baseThroughput == null || baseHeap == null ) {
+				System.out.println(String.format("%-10d %14.0f %14s %14.1f %14s  %s",
+						lines,throughput,"-",peakHeap / BYTES_IN_MB,"-","no baseline"));
+				passed = false;
+				continue;
+			}
+			
+			double expectedThroughput = Double.parseDouble(baseThroughput);
+			long expectedHeap = Long.parseLong(baseHeap);
+			ArrayList < String > regressions = new ArrayList < String > ();
+			if ( throughput < expectedThroughput * (1 - throughputTolerance) ) regressions.add("throughput");
+			if ( peakHeap > expectedHeap * (1 + heapTolerance) ) regressions.add("peak heap");
+			passed &= regressions.isEmpty();
+			System.out.println(String.format("%-10d %14.0f %14.0f %14.1f %14.1f  %s",
+					lines,throughput,expectedThroughput,peakHeap / BYTES_IN_MB,expectedHeap / BYTES_IN_MB,
+					( regressions.isEmpty() )?("ok"):("REGRESSED " + String.join(", ",regressions))));
+		}
+		
+		if ( record ) {
+			try (OutputStream out = new FileOutputStream(baselineFile)) {
+				baseline.store(out,"RegressionGate baseline, seed " + WorkloadGenerator.DEFAULT_SEED);
+			}
+			System.out.println("Baseline of " + machine + " was written to " + baselineFile);
+		}
+		return passed;
+	}
+	
+	// values of other machines aren't comparable, child JVM gets the same max heap as this one
+	private static String machine() {
+		return System.getProperty("os.arch") + "-" + Runtime.getRuntime().availableProcessors() + "cpu"
+				+ "-java" + System.getProperty("java.specification.version")
+				+ "-" + (Runtime.getRuntime().maxMemory() >> 20) + "m";
+	}
+	
+	// child JVM gets the same heap settings as this one, logs of phases are left in work directory
+	private long[] translate(File source) throws IOException, InterruptedException {
+		ArrayList < String > command = new ArrayList < String > ();
+		command.add(new File(System.getProperty("java.home"),"bin/java").getPath());
+		for ( String arg : ManagementFactory.getRuntimeMXBean().getInputArguments() ) 
+			if ( arg.startsWith("-Xmx") || arg.startsWith("-Xms") || arg.startsWith("-XX:+Use") ) command.add(arg);
+		command.add("-cp");
+		command.add(classPath());
+		command.add(GateRun.class.getName());
+		command.add(source.getAbsolutePath());
+		command.add(new File(workDir,"listing").getAbsolutePath());
+		
+		Process process = new ProcessBuilder(command)
+				.directory(workDir)
+				.redirectError(ProcessBuilder.Redirect.DISCARD)
+				.start();
+		String output;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			output = reader.readLine();
+		}
+		if ( process.waitFor() != 0 || output == null ) 
+			throw new IllegalStateException("Translation of " + source + " failed.");
+		String[] values = output.trim().split(" ");
+		return new long[] { Long.parseLong(values[0]), Long.parseLong(values[1]) };
+	}
+	
+	// child runs in work directory, so relative entries wouldn't be found
+	private static String classPath() {
+		ArrayList < String > entries = new ArrayList < String > ();
+		for ( String entry : System.getProperty("java.class.path").split(File.pathSeparator) ) 
+			entries.add(new File(entry).getAbsolutePath());
+		return String.join(File.pathSeparator,entries);
+	}
+	
+	private static long median(long[] values) {
+		long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+}
@@ -0,0 +1,65 @@
+package translator.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import translator.Translator;
+
+// Time from cold start to written listing of a 10 line source.
+// Every fork runs translation once, so loading and initializing translator classes,
+// tables of symbol table among them, is part of measured time.
+// Setup doesn't touch translator classes, they must be loaded by the measured call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(30)
+public class StartupBenchmark {
+	private final static String[] source = {
+		"data segment",
+		"val db 12h",
+		"arr dw 4 dup (1 + 2*3)",
+		"data ends",
+		"code segment",
+		"start:",
+		"	or al,-(10 mod 4) + 5",
+		"	jmp start",
+		"code ends",
+		"end start"
+	};
+
+	private String[] args;
+	private PrintStream stdErr;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		File file = File.createTempFile("bench-startup-",".asm");
+		file.deleteOnExit();
+		Files.write(file.toPath(),Arrays.asList(source),StandardCharsets.ISO_8859_1);
+		File listing = new File(Files.createTempDirectory("bench-listing").toFile(),"listing");
+		listing.deleteOnExit();
+		args = new String[] { "-f", file.getAbsolutePath(), "-o", listing.getAbsolutePath() };
+
+		stdErr = System.err;
+		System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		System.setErr(stdErr);
+	}
+
+	@Benchmark
+	public void firstListing() {
+		Translator.main(args);
+	}
+}
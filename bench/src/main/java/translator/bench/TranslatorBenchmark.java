@@ -0,0 +1,57 @@
+package translator.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import translator.CompilerFlags;
+import translator.Translator;
+
+// Whole translation from source file to listing file.
+// Listing is written into temporary directory, product logs of phases into working one.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TranslatorBenchmark {
+	@Param({"1", "100", "1000"})
+	public int copies;
+	
+	private String[] args;
+	private PrintStream stdErr;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		File source = Workload.scaled(copies);
+		File listing = new File(Files.createTempDirectory("bench-listing").toFile(),"listing");
+		listing.deleteOnExit();
+		args = new String[] { "-f", source.getAbsolutePath(), "-o", listing.getAbsolutePath() };
+		
+		// warnings would be printed on every run
+		stdErr = System.err;
+		System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+	}
+	
+	@Setup(Level.Invocation)
+	public void reset() {
+		Workload.resetTranslator();
+		Translator.flags = new CompilerFlags();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		System.setErr(stdErr);
+	}
+	
+	@Benchmark
+	public void translate() {
+		Translator.main(args);
+	}
+}
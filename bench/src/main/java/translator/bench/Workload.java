@@ -0,0 +1,86 @@
+package translator.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import translator.Translator;
+import translator.errorhandling.ErrorsTable;
+import translator.lexer.Lexer;
+import translator.lexer.ParsedLine;
+import translator.profiling.PhaseStats;
+import translator.table.SymbolTable;
+
+// Sources which benchmarks are run on.
+// Translator keeps its tables in static fields, so they are recreated before every run.
+final class Workload {
+	final static String SOURCE_PROPERTY = "bench.source";
+	final static String DEFAULT_SOURCE = "../tests/testAsm.asm";
+	
+	private final static String identChars = "[a-zA-Z0-9_@$?]";
+	private final static Pattern declaration = Pattern.compile("^\\s*(" + identChars + "+)(\\s*:|\\s+(segment|db|dw|dd)\\b).*$",Pattern.CASE_INSENSITIVE);
+	private final static Pattern endDirective = Pattern.compile("^\\s*end(\\s.*)?$",Pattern.CASE_INSENSITIVE);
+	
+	private Workload() {
+	}
+	
+	static void resetTranslator() {
+		Translator.mainTab = new SymbolTable();
+		Translator.errTab = new ErrorsTable();
+		Translator.stats = new PhaseStats();
+	}
+	
+	static List < String > readSource() throws IOException {
+		return Files.readAllLines(new File(System.getProperty(SOURCE_PROPERTY,DEFAULT_SOURCE)).toPath(),StandardCharsets.ISO_8859_1);
+	}
+	
+	// copies of source one after another, declared names of every copy get its own suffix,
+	// only the last copy keeps the end directive
+	static File scaled(int copies) throws IOException {
+		List < String > source = readSource();
+		ArrayList < Pattern > names = new ArrayList < Pattern > ();
+		ArrayList < String > plainNames = new ArrayList < String > ();
+		String endLine = null;
+		for ( String line : source ) {
+			String code = line.replaceAll(";.*","");
+			Matcher matcher = declaration.matcher(code);
+			if ( matcher.matches() ) {
+				plainNames.add(matcher.group(1));
+				names.add(Pattern.compile("(?<!" + identChars + ")" + Pattern.quote(matcher.group(1)) + "(?!" + identChars + ")",Pattern.CASE_INSENSITIVE));
+			}
+		}
+		
+		ArrayList < String > result = new ArrayList < String > ();
+		for ( int copy = 0; copy < copies; copy++ ) 
+			for ( String line : source ) {
+				String code = line.replaceAll(";.*","");
+				for ( int i = 0; i < names.size(); i++ ) 
+					code = names.get(i).matcher(code).replaceAll(Matcher.quoteReplacement(plainNames.get(i) + "_" + copy));
+				if ( endDirective.matcher(code).matches() ) 
+					endLine = code;
+				else 
+					result.add(code);
+			}
+		if ( endLine != null ) result.add(endLine);
+		
+		File file = File.createTempFile("bench-" + copies + "-",".asm");
+		file.deleteOnExit();
+		Files.write(file.toPath(),result,StandardCharsets.ISO_8859_1);
+		return file;
+	}
+	
+	// every line is lexed on its own, no grammar is applied to it
+	static ArrayList < ParsedLine > lexLines(String... lines) throws IOException {
+		File file = File.createTempFile("bench-lines-",".asm");
+		file.deleteOnExit();
+		List < String > source = new ArrayList < String > ();
+		for ( String line : lines ) source.add(line);
+		Files.write(file.toPath(),source,StandardCharsets.ISO_8859_1);
+		return new Lexer(Translator.mainTab,file).getTerm();
+	}
+}
@@ -0,0 +1,225 @@
+package translator.bench;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+// Generates valid sources of given number of lines. The same seed always gives the same source.
+// Program is split into blocks of data and code segment, code contains every supported command,
+// every memory addressing form and forward references to labels of the same segment.
+// Base-index forms without ptr are recognized, but their size isn't inferred from other operand,
+// so they aren't generated.
+//
+//	java -cp target/benchmarks.jar translator.bench.WorkloadGenerator lines [seed] [file]
+public class WorkloadGenerator {
+	public final static long DEFAULT_SEED = 20140220L;
+	
+	private final static int VARIABLES_IN_BLOCK = 64;
+	private final static int COMMANDS_IN_BLOCK = 1024;
+	private final static int COMMANDS_BETWEEN_LABELS = 12;
+	
+	private final static String[][] regs = {
+		{ "al", "cl", "dl", "bl", "ah", "ch", "dh", "bh" },
+		{ "ax", "cx", "dx", "bx", "sp", "bp", "si", "di" },
+		{ "eax", "ecx", "edx", "ebx", "esp", "ebp", "esi", "edi" }
+	};
+	private final static String[] segRegs = { "ds", "es", "fs", "gs", "ss", "cs" };
+	private final static String[] types = { "byte", "word", "dword" };
+	private final static String[] defs = { "db", "dw", "dd" };
+	private final static String[][] pairs16 = { { "bx", "si" }, { "bx", "di" }, { "bp", "si" }, { "bp", "di" } };
+	
+	private enum Addressing { SumWithPtr, DoubleWithPtr, DirectWithPtr, DirectWithOutPtr }
+	
+	private Random random;
+	private PrintWriter out;
+	private int linesLeft;
+	private int block;
+	private int[] varSizes;
+	private int label;
+	private int lastReferenced;
+	
+	public WorkloadGenerator(long seed) {
+		random = new Random(seed);
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if ( args.length == 0 ) {
+			System.err.println("Usage : WorkloadGenerator lines [seed] [file]");
+			System.exit(1);
+		}
+		int lines = Integer.parseInt(args[0]);
+		long seed = ( args.length > 1 )?(Long.parseLong(args[1])):(DEFAULT_SEED);
+		if ( args.length > 2 ) 
+			new WorkloadGenerator(seed).generate(lines,new File(args[2]));
+		else 
+			new WorkloadGenerator(seed).generate(lines,new OutputStreamWriter(System.out,StandardCharsets.ISO_8859_1));
+	}
+	
+	public void generate(int lines,File file) throws IOException {
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),StandardCharsets.ISO_8859_1))) {
+			generate(lines,writer);
+		}
+	}
+	
+	// blocks are emitted until requested number of lines is reached, last block is always complete
+	public void generate(int lines,Writer writer) {
+		out = new PrintWriter(writer);
+		linesLeft = lines;
+		block = 0;
+		while ( block == 0 || linesLeft > 0 ) {
+			dataSegment();
+			codeSegment();
+			block++;
+		}
+		out.println("    end start0");
+		out.flush();
+	}
+	
+	private void println(String line) {
+		out.println(line);
+		linesLeft--;
+	}
+	
+	private void dataSegment() {
+		varSizes = new int[VARIABLES_IN_BLOCK];
+		println("data" + block + " segment");
+		for ( int i = 0; i < VARIABLES_IN_BLOCK; i++ ) {
+			varSizes[i] = random.nextInt(3);
+			println("    v" + block + "_" + i + " " + defs[varSizes[i]] + " " + initializer(varSizes[i]));
+		}
+		println("data" + block + " ends");
+	}
+	
+	// lines are reserved for labels, segment ends, labels of last jumps and end directive
+	private void codeSegment() {
+		int commands = Math.min(COMMANDS_IN_BLOCK,linesLeft - 6);
+		commands = Math.max(1,commands - commands / COMMANDS_BETWEEN_LABELS);
+		label = lastReferenced = 0;
+		println("code" + block + " segment");
+		println("start" + block + ":");
+		for ( int i = 0; i < commands; i++ ) {
+			if ( i % COMMANDS_BETWEEN_LABELS == COMMANDS_BETWEEN_LABELS - 1 ) 
+				println("l" + block + "_" + (label++) + ":");
+			command();
+		}
+		do 
+			println("l" + block + "_" + (label++) + ":");
+		while ( label <= lastReferenced );
+		println("code" + block + " ends");
+		if ( linesLeft < 2 ) linesLeft = 0;		// end directive
+	}
+	
+	private void command() {
+		int size = random.nextInt(3);
+		String reg = regs[size][random.nextInt(8)];
+		switch ( random.nextInt(10) ) {
+			case 0:
+				println("    mov " + memory(size) + "," + reg);
+				break;
+			case 1:
+				println("    sti");
+				break;
+			case 2:
+				println("    div " + memory(size));
+				break;
+			case 3:
+				println("    mul " + reg);
+				break;
+			case 4:
+				println("    adc " + reg + "," + memory(size));
+				break;
+			case 5:
+				println("    and " + reg + "," + memory(size));
+				break;
+			case 6:
+				println("    test " + memory(size) + "," + reg);
+				break;
+			case 7:
+				if ( random.nextBoolean() ) reg = regs[size][0];		// accumulator forms
+				println("    or " + reg + "," + immediate(size));
+				break;
+			default:
+				// forward reference, label is defined later in the same segment
+				int target = label + random.nextInt(3);
+				lastReferenced = Math.max(lastReferenced,target);
+				println("    " + (random.nextBoolean()?"jmp":"jae") + " l" + block + "_" + target);
+		}
+	}
+	
+	private String memory(int size) {
+		Addressing[] forms = Addressing.values();
+		Addressing form = forms[random.nextInt(forms.length)];
+		String seg = segRegs[random.nextInt(segRegs.length)] + ":";
+		String ptr = types[size] + " ptr ";
+		switch ( form ) {
+			case SumWithPtr:
+				return ptr + seg + "[" + baseIndex(" + ") + "]";
+			case DoubleWithPtr:
+				return ptr + seg + "[" + baseIndex("][") + "]";
+			case DirectWithPtr:
+				return ptr + seg + "v" + block + "_" + random.nextInt(VARIABLES_IN_BLOCK);
+			default:
+				return seg + variableOfSize(size);
+		}
+	}
+	
+	private String variableOfSize(int size) {
+		int start = random.nextInt(VARIABLES_IN_BLOCK);
+		for ( int i = 0; i < VARIABLES_IN_BLOCK; i++ ) 
+			if ( varSizes[(start + i) % VARIABLES_IN_BLOCK] == size ) 
+				return "v" + block + "_" + ((start + i) % VARIABLES_IN_BLOCK);
+		return types[size] + " ptr v" + block + "_" + start;
+	}
+	
+	private String baseIndex(String separator) {
+		if ( random.nextBoolean() ) {
+			String[] pair = pairs16[random.nextInt(pairs16.length)];
+			return pair[0] + separator + pair[1];
+		}
+		String index = regs[2][random.nextInt(8)];
+		while ( index.equals("esp") ) 
+			index = regs[2][random.nextInt(8)];
+		return regs[2][random.nextInt(8)] + separator + index;
+	}
+	
+	private String immediate(int size) {
+		long max = ( size == 0 )?(0xFFL):(( size == 1 )?(0xFFFFL):(0xFFFFFFFFL));
+		long value = (random.nextLong() >>> 1) % (max + 1);
+		return "0" + Long.toHexString(value) + "h";
+	}
+	
+	// nested expressions, value always fits into variable
+	private String initializer(int size) {
+		int a = random.nextInt(16), b = random.nextInt(16) + 1, c = random.nextInt(8) + 1;
+		switch ( random.nextInt(4) ) {
+			case 0:
+				return "((" + a + " + " + b + ") * " + c + " - " + binary(a) + ") mod " + (random.nextInt(100) + 1);
+			case 1:
+				return "0 + (-1)*" + a + "*(-1) + " + hex(b);
+			case 2:
+				return "((" + a + " mod " + b + " + 0fh) mod 17 ) mod ( -1 + 4 * 3 - ( " + c * 2 + " / " + c + ") )";
+			default:
+				if ( size == 0 ) 
+					return "-" + a + " + " + b;
+				return hex(random.nextInt(( size == 1 )?(0x7FFF):(0x7FFFFFFF))) + " / " + c + " + " + octal(a);
+		}
+	}
+	
+	private static String binary(int value) {
+		return Integer.toBinaryString(value) + "b";
+	}
+	
+	private static String hex(int value) {
+		return "0" + Integer.toHexString(value) + "h";
+	}
+	
+	private static String octal(int value) {
+		return Integer.toOctalString(value) + "o";
+	}
+}
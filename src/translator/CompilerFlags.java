@@ -8,14 +8,26 @@
 
 package translator;
 
+import java.util.HashSet;
+import java.util.Set;
+
 public class CompilerFlags {
-	enum ArgType { iFile,oFile,flagExpect}
+	enum ArgType { iFile,oFile,maxErrors,diagJson,define,reorder,timing,flagExpect}
 	
 	private boolean prnLexer = false;
 	private boolean prnTable = false;
 	private boolean prnSyntaxer = false;
+	private boolean stats = false;
+	private boolean optimizeSize = false;
+	private boolean peephole = false;
+	private boolean strip = false;
 	private String iFile = null;
 	private String oFile = null;
+	private int maxErrors = Integer.MAX_VALUE;
+	private String diagJsonFile = null;
+	private String timing = null;
+	private HashSet < String > defines = new HashSet < String > ();
+	private HashSet < String > reorderSegments = new HashSet < String > ();
 	private final static String HelpMsg = "Follow keys can be used: \n" +
 								  "\t-h 		 	Print this help messege.\n" +
 								  "\t-f [file]		File which will be compiled.\n" +
@@ -23,6 +35,15 @@ public class CompilerFlags {
 								  "\t-prnlexer		Print lexer result.\n" +
 								  "\t-prnsyn 	 	Print syntaxer result.\n" +		
 								  "\t-prntable		Print symbol table.\n" +
+								  "\t-maxerrors [n]	Stop translation after n errors.\n" +
+								  "\t-diagjson [file]	Write diagnostics as JSON lines into file.\n" +
+								  "\t-stats			Print time, throughput and allocations of every phase.\n" +
+								  "\t-define [name]		Name is defined for IFDEF and IFNDEF, can be repeated.\n" +
+								  "\t-Osize			Encode every command in its shortest form, report bytes saved per segment.\n" +
+								  "\t-peephole		Drop redundant commands, report dropped ones.\n" +
+								  "\t-strip			Drop unreachable code and unused variables, report dropped lines.\n" +
+								  "\t-timing [8086|286|386]	Annotate commands in listing with clocks of processor, sum them per block.\n" +
+								  "\t-reorder [segment]	Reorder variables of segment to reduce alignment padding, can be repeated.\n" +
 								  "Example : java Translator -f source.asm -o listing.lst\n";
 	
 	public void ParseArgs(String[] args) {
@@ -62,6 +83,53 @@ public class CompilerFlags {
 	        			prnSyntaxer = true;
 	        			curParseArg = ArgType.flagExpect;
 	        			break;
+	        		case "-stats":
+	        			PrnIfAndExit(curParseArg != ArgType.flagExpect,"Missing operand.");
+	        			if (stats) throw new ParameterDuplicate("-stats");
+	        			stats = true;
+	        			curParseArg = ArgType.flagExpect;
+	        			break;
+	        		case "-Osize":
+	        			PrnIfAndExit(curParseArg != ArgType.flagExpect,"Missing operand.");
+	        			if (optimizeSize) throw new ParameterDuplicate("-Osize");
+	        			optimizeSize = true;
+	        			curParseArg = ArgType.flagExpect;
+	        			break;
+	        		case "-peephole":
+	        			PrnIfAndExit(curParseArg != ArgType.flagExpect,"Missing operand.");
+	        			if (peephole) throw new ParameterDuplicate("-peephole");
+	        			peephole = true;
+	        			curParseArg = ArgType.flagExpect;
+	        			break;
+	        		case "-strip":
+	        			PrnIfAndExit(curParseArg != ArgType.flagExpect,"Missing operand.");
+	        			if (strip) throw new ParameterDuplicate("-strip");
+	        			strip = true;
+	        			curParseArg = ArgType.flagExpect;
+	        			break;
+	        		case "-maxerrors":
+	        			PrnIfAndExit(curParseArg != ArgType.flagExpect,"Missing operand.");
+	        			if ( maxErrors != Integer.MAX_VALUE ) throw new ParameterDuplicate("-maxerrors");
+	        			curParseArg = ArgType.maxErrors;
+	        			break;
+	        		case "-diagjson":
+	        			PrnIfAndExit(curParseArg != ArgType.flagExpect,"Missing operand.");
+	        			if ( diagJsonFile != null ) throw new ParameterDuplicate("-diagjson");
+	        			curParseArg = ArgType.diagJson;
+	        			break;
+	        		case "-define":
+	        			PrnIfAndExit(curParseArg != ArgType.flagExpect,"Missing operand.");
+	        			curParseArg = ArgType.define;
+	        			break;
+	        		case "-timing":
+	        			PrnIfAndExit(curParseArg != ArgType.flagExpect,"Missing operand.");
+	        			if ( timing != null ) throw new ParameterDuplicate("-timing");
+	        			curParseArg = ArgType.timing;
+	        			break;
+	        		case "-reorder":
+	        			PrnIfAndExit(curParseArg != ArgType.flagExpect,"Missing operand.");
+	        			curParseArg = ArgType.reorder;
+	        			break;
 	        		default :
 	        			switch(curParseArg) {
 	        				case flagExpect:
@@ -75,8 +143,31 @@ public class CompilerFlags {
 	        					PrnIfAndExit(oFile != null,"Flag -o expect only one parameter.");
 	        					oFile = new String(arg);
 	        					curParseArg = ArgType.flagExpect;
+	        					break;
+	        				case maxErrors:
+	        					PrnIfAndExit(!arg.matches("[1-9][0-9]{0,8}"),"Flag -maxerrors expect positive number.");
+	        					maxErrors = Integer.parseInt(arg);
+	        					curParseArg = ArgType.flagExpect;
+	        					break;
+	        				case diagJson:
+	        					diagJsonFile = new String(arg);
+	        					curParseArg = ArgType.flagExpect;
+	        					break;
+	        				case define:
+	        					defines.add(arg.toLowerCase());
+	        					curParseArg = ArgType.flagExpect;
+	        					break;
+	        				case timing:
+	        					PrnIfAndExit(!arg.matches("8086|286|386"),"Flag -timing expect 8086, 286 or 386.");
+	        					timing = arg;
+	        					curParseArg = ArgType.flagExpect;
+	        					break;
+	        				case reorder:
+	        					reorderSegments.add(arg.toLowerCase());
+	        					curParseArg = ArgType.flagExpect;
 	        			}
 	        	}
+			PrnIfAndExit(curParseArg != ArgType.flagExpect,"Missing operand.");	// last flag waits for its value
 		} catch (ParameterDuplicate exc) {
 			PrnIfAndExit(true,"Parameter '" + exc.getpName() + "' is specified two or more times.");
 		}
@@ -109,6 +200,42 @@ public class CompilerFlags {
 		return prnSyntaxer;
 	}
 	
+	public boolean isStats() {
+		return stats;
+	}
+	
+	public boolean isOptimizeSize() {
+		return optimizeSize;
+	}
+	
+	public boolean isPeephole() {
+		return peephole;
+	}
+	
+	public boolean isStrip() {
+		return strip;
+	}
+	
+	public Set < String > getDefines() {
+		return defines;
+	}
+	
+	public Set < String > getReorderSegments() {
+		return reorderSegments;
+	}
+	
+	public int getMaxErrors() {
+		return maxErrors;
+	}
+	
+	public String getTiming() {
+		return timing;
+	}
+	
+	public String getDiagJsonFile() {
+		return diagJsonFile;
+	}
+	
 	public String getIFile() {
 		return iFile;
 	}
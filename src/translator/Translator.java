@@ -15,7 +15,12 @@ import java.io.IOException;
 import translator.termworks.views.*;
 import translator.errorhandling.*;
 import translator.termworks.generating.ListingGenerator;
+import translator.termworks.generating.SizeSelectionReport;
+import translator.termworks.layout.BranchRelaxer;
+import translator.termworks.peephole.PeepholeOptimizer;
+import translator.termworks.strip.DeadCodeStripper;
 import translator.lexer.Lexer;
+import translator.profiling.PhaseStats;
 import translator.termworks.syntax.Parser;
 import translator.table.SymbolTable;
 import translator.termworks.checker.GrammarChecker;
@@ -24,45 +29,95 @@ public class Translator {
 	public static SymbolTable mainTab = new SymbolTable(); 
 	public static CompilerFlags flags = new CompilerFlags();
 	public static ErrorsTable errTab = new ErrorsTable();
+	public static PhaseStats stats = new PhaseStats();
 	
     public static void main(String[] args) {
     	flags.ParseArgs(args);
+    	errTab.setMaxErrors(flags.getMaxErrors());
+    	errTab.setJsonOutput(flags.getDiagJsonFile());
+    	stats.setEnabled(flags.isStats());
 		
     	// lexical analyzer entry point
+    	PhaseStats.Phase phase = stats.start("lexer");
     	Lexer lex = new Lexer(mainTab,new File(flags.getIFile()));
+    	phase.end(lex.getTerm());
     	if ( flags.isPrnLexer() ) prnProduct(lex,"lexer");
     	if ( errTab.isCritical() ) stopBuild();
     	    	
     	// parser entry point
+    	phase = stats.start("parser");
     	Parser syn = new Parser(mainTab,lex.getTerm()); 
+    	phase.end(syn.getTerm());
     	if ( flags.isPrnSyntaxer() ) prnProduct(syn,"syntaxer");
   	
     	GrammarChecker checker = new GrammarChecker(errTab,mainTab);
+    	phase = stats.start("first-checks");
     	checker.check(syn.getTerm(), GrammarChecker.AvailableChecks.FirsViewChecks );
+    	phase.end(syn.getTerm());
     	if ( errTab.isCritical() ) stopBuild();
     	    	
     	FirstViewer firstViewer = new FirstViewer(mainTab);
+    	phase = stats.start("first-viewer");
     	firstViewer.view(syn.getTerm());
-    	prnProduct(firstViewer, "fist-viewer");
+    	phase.end(firstViewer.getTerm());
+    	if ( errTab.isCritical() ) stopBuild();
     	
-    	checker.check(syn.getTerm(), GrammarChecker.AvailableChecks.SecondViewChecks );
+    	phase = stats.start("second-checks");
+    	checker.check(firstViewer.getTerm(), GrammarChecker.AvailableChecks.SecondViewChecks );	// operands resolved by first view are only there
+    	phase.end(firstViewer.getTerm());
     	if ( errTab.isCritical() ) stopBuild();
+    	
+    	if ( flags.isStrip() ) {
+    		DeadCodeStripper stripper = new DeadCodeStripper();
+    		phase = stats.start("strip");
+    		stripper.strip(firstViewer.getTerm(),firstViewer.getEntry(),firstViewer.getLayouts());
+    		firstViewer.relayout();
+    		stripper.sizesAfter(firstViewer.getLayouts());
+    		phase.end(firstViewer.getTerm());
+    		prnProduct(stripper, "strip");
+    	}
+    	
+    	if ( flags.isPeephole() ) {
+    		PeepholeOptimizer peephole = new PeepholeOptimizer(PeepholeOptimizer.defaultRules());
+    		phase = stats.start("peephole");
+    		peephole.optimize(firstViewer.getTerm());
+    		firstViewer.relayout();
+    		phase.end(firstViewer.getTerm());
+    		prnProduct(peephole, "peephole");
+    	}
+    	
+    	BranchRelaxer relaxer = new BranchRelaxer(errTab);
+    	phase = stats.start("relaxer");
+    	relaxer.relax(firstViewer.getLayouts());
+    	phase.end(firstViewer.getTerm());
+    	prnProduct(relaxer, "relaxer");
+    	prnProduct(firstViewer, "fist-viewer");		// symbols have offsets of relaxed layouts
+    	if ( errTab.isCritical() ) stopBuild();
+    	
+    	if ( flags.isOptimizeSize() ) {
+    		SizeSelectionReport sizeReport = new SizeSelectionReport();
+    		sizeReport.collect(firstViewer.getTerm());
+    		prnProduct(sizeReport, "osize");
+    	}
 
  //   	SecondViewer secondViewer = new SecondViewer(mainTab);
   //  	secondViewer.view(firstViewer.getTerm());
 
     	try {
-    		ListingGenerator listingGenerator = new ListingGenerator(firstViewer.getTerm());
+    		phase = stats.start("listing");
+    		ListingGenerator listingGenerator = new ListingGenerator(firstViewer.getTerm(),firstViewer.getLayouts());
     		errTab.PrintFoundErrors();
     		listingGenerator.genOutput(flags.getOFile());	// generating of listing file
+    		phase.end(firstViewer.getTerm());
 		} catch (FileNotFoundException exc) {
 			System.err.println("Error while creating output file : " + exc.getMessage());
 		}
-    	
+    	if ( stats.isEnabled() ) prnProduct(stats,"stats");
     }
     
     public static void stopBuild() {
     	errTab.PrintFoundErrors();
+    	if ( stats.isEnabled() ) prnProduct(stats,"stats");
 		System.err.println("Build was stopped.");
 		System.exit(1);
     }
@@ -0,0 +1,30 @@
+package translator.errorhandling;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Shared between passes, once cancelled every pass stops at the next line
+public class CancellationToken {
+	private volatile boolean cancelled;
+	private AtomicLong skippedLines;
+	
+	public CancellationToken() {
+		cancelled = false;
+		skippedLines = new AtomicLong();
+	}
+	
+	public void cancel() {
+		cancelled = true;
+	}
+	
+	public boolean isCancelled() {
+		return cancelled;
+	}
+	
+	public void linesSkipped(long numb) {
+		skippedLines.addAndGet(numb);
+	}
+	
+	public long getSkippedLines() {
+		return skippedLines.get();
+	}
+}
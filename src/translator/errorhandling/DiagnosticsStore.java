@@ -0,0 +1,125 @@
+package translator.errorhandling;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+// Reported diagnostics kept column-wise in parallel primitive arrays.
+// For sorting every diagnostic is packed into one long key :
+// line ( 32 bits ) | column ( 20 bits ) | error identifier ( 12 bits )
+class DiagnosticsStore {
+	private final static int INITIAL_CAPACITY = 64;
+	private final static int COLUMN_BITS = 20;
+	private final static int ID_BITS = 12;
+	private final static int MAX_COLUMN = (1 << COLUMN_BITS) - 1;
+
+	private int[] ids;
+	private int[] lines;
+	private int[] columns;
+	private int[] repeats;		// number of identical diagnostics collapsed into one, known after collapsing
+	private int size;
+
+	DiagnosticsStore() {
+		ids = new int[INITIAL_CAPACITY];
+		lines = new int[INITIAL_CAPACITY];
+		columns = new int[INITIAL_CAPACITY];
+		repeats = null;
+		size = 0;
+	}
+
+	void add(int id,int line,int column) {
+		if ( size == ids.length ) grow();
+		ids[size] = id;
+		lines[size] = line;
+		columns[size] = Math.max(0,Math.min(column,MAX_COLUMN));
+		size++;
+	}
+
+	void addAll(DiagnosticsStore other) {
+		for ( int i = 0; i < other.size; i++ ) 
+			add(other.ids[i],other.lines[i],other.columns[i]);
+	}
+
+	int size() {
+		return size;
+	}
+
+	int repeatsAt(int i) {
+		return ( repeats == null )?(1):(repeats[i]);
+	}
+
+	private void grow() {
+		int capacity = ids.length * 2;
+		ids = Arrays.copyOf(ids,capacity);
+		lines = Arrays.copyOf(lines,capacity);
+		columns = Arrays.copyOf(columns,capacity);
+	}
+
+	// sorts by line, then column and identifier, identical diagnostics are collapsed into one
+	void sortAndCollapse() {
+		long[] keys = new long[size];
+		for ( int i = 0; i < size; i++ )
+			keys[i] = ((long) lines[i] << (COLUMN_BITS + ID_BITS)) | ((long) columns[i] << ID_BITS) | ids[i];
+		Arrays.sort(keys);
+
+		repeats = new int[size];
+		int unique = 0;
+		for ( int i = 0; i < size; i++ ) {
+			if ( unique != 0 && keys[i] == keys[unique - 1] ) {
+				repeats[unique - 1]++;
+				continue;
+			}
+			repeats[unique] = 1;
+			keys[unique++] = keys[i];
+		}
+
+		for ( int i = 0; i < unique; i++ ) {
+			ids[i] = (int) (keys[i] & ((1 << ID_BITS) - 1));
+			columns[i] = (int) ((keys[i] >>> ID_BITS) & MAX_COLUMN);
+			lines[i] = (int) (keys[i] >>> (COLUMN_BITS + ID_BITS));
+		}
+		size = unique;
+	}
+
+	interface MessageSource {
+		String getMessage(int id);
+		boolean isWarning(int id);
+		String getName(int id);
+	}
+
+	void writeText(Writer writer,MessageSource messages) throws IOException {
+		for ( int i = 0; i < size; i++ ) {
+			writer.write( (messages.isWarning(ids[i]))?("WARNING"):("ERROR") );
+			writer.write(" : ");
+			writer.write(messages.getMessage(ids[i]));
+			if ( repeatsAt(i) > 1 ) {
+				writer.write(" ( repeated ");
+				writer.write(Integer.toString(repeatsAt(i)));
+				writer.write(" times )");
+			}
+			writer.write("\n\tline : ");
+			writer.write(Integer.toString(lines[i]));
+			writer.write(", position : ");
+			writer.write(Integer.toString(columns[i]));
+			writer.write("\n\n");
+		}
+	}
+
+	void writeJsonLines(Writer writer,MessageSource messages) throws IOException {
+		for ( int i = 0; i < size; i++ ) {
+			writer.write("{\"severity\":\"");
+			writer.write( (messages.isWarning(ids[i]))?("warning"):("error") );
+			writer.write("\",\"id\":\"");
+			writer.write(messages.getName(ids[i]));
+			writer.write("\",\"line\":");
+			writer.write(Integer.toString(lines[i]));
+			writer.write(",\"column\":");
+			writer.write(Integer.toString(columns[i]));
+			writer.write(",\"count\":");
+			writer.write(Integer.toString(repeatsAt(i)));
+			writer.write(",\"message\":\"");
+			writer.write(messages.getMessage(ids[i]).replace("\\","\\\\").replace("\"","\\\""));
+			writer.write("\"}\n");
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package translator.errorhandling;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import translator.errorhandling.ErrorsTable.ErrIdent;
 import translator.lexer.ParsedLine;
 import translator.table.tablecomponents.AtomType;
@@ -7,46 +9,46 @@ import translator.table.tablecomponents.userdefined.Identifier;
 
 public class ErrorReporter {
 	private ErrorsTable errTab;
-	private int errReported;
+	private LongAdder errReported;
 	
 	public ErrorReporter(ErrorsTable errTab) {
-		errReported = 0;
+		errReported = new LongAdder();
 		this.errTab = errTab;
 	}
 	
-	public int getErrReported() {
-		return errReported;
+	public long getErrReported() {
+		return errReported.sum();
 	}
 
 	public void reportAlreadyDefLabel(ParsedLine line) {
-		errReported++;
+		errReported.increment();
 		 errTab.report( ErrIdent.LabelAlreadyDef,
 								   line.getLineNumb(),
 								   line.findPos( line.getAtomAt(0) ) );
 	}
 	public void reportNotLabelAlreadyDef(ParsedLine line ) {
-		errReported++; 
+		errReported.increment(); 
 		errTab.report( ErrIdent.AlreadyDefNotLabel,
 					    line.getLineNumb(),
 					    line.findPos( line.getAtomAt(0) ) );
 	}
 
 	public void reportVariableAlreadyDef(ParsedLine line) {
-		 errReported++;
+		 errReported.increment();
 		 errTab.report( ErrIdent.VariableAlreadyDef,
 					    line.getLineNumb(),
 					    line.findPos( line.getAtomAt(0) ) );
 	}
 	
 	public void reportNotVaraibleAlreadyDef(ParsedLine line) {
-		errReported++; 
+		errReported.increment(); 
 		errTab.report( ErrIdent.AlreadyDefNotVariable,
 		 			    line.getLineNumb(),
 		 			    line.findPos( line.getAtomAt(0) ) );
 	}
 		
 	public void reportInitConstantTooBig(ParsedLine line) {
-		errReported++; 
+		errReported.increment(); 
 		errTab.report(ErrIdent.InitConstantTooBig,
 								 line.getLineNumb(),
 						    	 line.findPos( line.getAtomAt(2)) );
@@ -54,35 +56,35 @@ public class ErrorReporter {
 	
 	
 	public void reportNotInsideSegmentDef(ParsedLine line) {
-		errReported++; 
+		errReported.increment(); 
 		errTab.report(ErrIdent.NoSegmentDataDefinition,
 								 line.getLineNumb(),
 						         line.findPos( line.getAtomAt(0) ));
 	}
 	
 	public void reportSegmentNotClosed(ParsedLine line) {
-		errReported++; 
+		errReported.increment(); 
 		errTab.report(ErrIdent.PreviousSegNotFinished,
 								 line.getLineNumb(),
 								 line.findPos(line.getAtomAt(1)));
 	}
 	
 	public void reportSegmentNotOpened(ParsedLine line) {
-		errReported++; 
+		errReported.increment(); 
 		errTab.report(ErrIdent.SegmentWasntOpened,
 								 line.getLineNumb(),
 								 line.findPos( line.getAtomAt(0) ));
 	}
 		
 	public void reportNotSegmentAlreadyDef(ParsedLine lexerLine) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.AlreadyDefNotSegment ,
 				 lexerLine.getLineNumb(),
 				 lexerLine.findPos(lexerLine.getAtomAt(0)) );
 	}
 	
 	public void reportMissingOperand(ParsedLine line,int opNumb) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.MissingOperand,
 					  line.getLineNumb(),
 					  (line.findPos(",",opNumb) != -1)
@@ -91,109 +93,144 @@ public class ErrorReporter {
 	}
 	
 	public void reportWrongOperandNumbInCommands(ParsedLine line) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.OperandNumbCommands,
 					  line.getLineNumb(),
 					  line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.Command))));
 	}
 	
 	public void reportWrongOperandNumbInDirective(ParsedLine line) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.OperandNumbDirective,
 					  line.getLineNumb(),
 					  line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.Directive))));
 	}
 	
 	public void reportIllFormed(ParsedLine line ) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.IllFormedLine, line.getLineNumb(), 1);
 	}
 	
 	public void reportDirectiveUsage(ParsedLine line) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.WrongDirectiveUsage,
 					  line.getLineNumb(),
 					  line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.Directive))) );
 	}
 	
 	public void reportLabelExpected(ParsedLine line) {
-		errReported++;
+		errReported.increment();
 		errTab.report( ErrIdent.LabelExpected ,
 					   line.getLineNumb(),
 						  line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.Identifier))));
 	}
 
 	public void reportEndDirectiveNotFound(ParsedLine parsedLine) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.EndDirectiveNotFound, 
 					  parsedLine.getLineNumb(), 1);	
 	}
 	
 	public void reportCodeNotInsideSeg(ParsedLine line) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.UndeclaredSegCodeEmission,
 				      line.getLineNumb(),
 					  line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.Command))));
 	}
 	
+	public void reportDupCountNotPositive(ParsedLine line) {
+		errReported.increment();
+		errTab.report(ErrIdent.DupCountNotPositive,
+					  line.getLineNumb(),
+					  line.findPos(line.getAtomAt(2)));
+	}
+	
+	public void reportDupCountOverflow(ParsedLine line) {
+		errReported.increment();
+		errTab.report(ErrIdent.DupCountOverflow,
+					  line.getLineNumb(),
+					  line.findPos(line.getAtomAt(2)));
+	}
+	
+	public void reportSegmentTooLarge(ParsedLine line) {
+		errReported.increment();
+		errTab.report(ErrIdent.SegmentTooLarge,
+					  line.getLineNumb(),
+					  line.findPos(line.getAtomAt(0)));
+	}
+	
+	public void reportNameIsConstant(ParsedLine line) {
+		errReported.increment();
+		errTab.report(ErrIdent.NameIsConstant,
+					  line.getLineNumb(),
+					  line.findPos(line.getAtomAt(0)));
+	}
+	
+	public void reportAlignNotPowerOfTwo(ParsedLine line) {
+		errReported.increment();
+		errTab.report(ErrIdent.AlignNotPowerOfTwo,
+					  line.getLineNumb(),
+					  line.findPos(line.getAtomAt(1)));
+	}
+	
 	public void reportOnlyAbsExprAllowed(ParsedLine line) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.AbsExprAllowedOnly,
 					  line.getLineNumb(),
 					  line.findPos(line.getAtomAt(2)));
 	}
 
 	public void reportMissedOperator(ParsedLine line) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.MissedAbsExprOperator,
 					  line.getLineNumb(),
 					  line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.AbsExpr))));
 	}
 	
 	public void reportMissedConstant(ParsedLine line ) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.MissedAbsExprOperand,
 					  line.getLineNumb(),
 					  line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.AbsExpr))));
 	}
 	
 	public void reportMissedOParenthesis( ParsedLine line ) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.MissedAbsExprOParenthesis,
 					  line.getLineNumb(),
 					  line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.AbsExpr))));
 	}
 	
 	public void reportMissedCParenthesis( ParsedLine line ) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.MissedAbsExprCParenthesis,
 					  line.getLineNumb(),
 					  line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.AbsExpr))));
 	}
 	
 	public void reportReservedNameConflicts( ParsedLine line ) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.NameConflictsWithReserved,
 					  line.getLineNumb(),
 					  line.findPos(line.getAtomAt(0)));
 	}
 
 	public void reportUndefinedOperand(ParsedLine line,int undefOpPos) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.UndefOperand,
 					  line.getLineNumb(),
 					  line.findPos(line.getAtomAt(undefOpPos) ) );
 	}
 	
 	public void reportUnsupportedOperands(ParsedLine line ) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.UnsupportedOperands,
 					  line.getLineNumb(),
 					  line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.Command)) ) );
 	}
  	
 	public void reportUndefIdent( ParsedLine line, Identifier ident ) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.UndefinedIdentifier, line.getLineNumb() ,
 						line.findPos(ident));
 	}
@@ -217,15 +254,21 @@ public class ErrorReporter {
 	}
 
 	public void reportBaseIndexComb(ParsedLine line) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.BaseIndexComb,line.getLineNumb(), 
 					  line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.Memory))));
 	}
 	
 	public void reportUndefMemory(ParsedLine line ) {
-		errReported++;
+		errReported.increment();
 		errTab.report(ErrIdent.UndefMemType, line.getLineNumb(),
 						line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.Memory))));
 	}
 	
+	public void reportJumpOutOfRange(ParsedLine line) {
+		errReported.increment();
+		errTab.report(ErrIdent.JumpOutOfRange, line.getLineNumb(),
+					  line.findPos(line.getAtomAt(line.firstIndexOf(AtomType.RelativeOperand))));
+	}
+	
 }
@@ -1,11 +1,13 @@
 package translator.errorhandling;
 
-import java.util.ArrayList;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.TreeMap;
-
-interface Reportable { 
-	public void report();
-}
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
 
 //encapsulates message and type of standard error
 abstract class ErrorMessage {
@@ -35,24 +37,6 @@ class Warning extends ErrorMessage {
 }
 
 
-class ErrorInfo implements Reportable {
-	 private int line;
-	 private int pos;
-	 ErrorMessage msgContainer;
-	 ErrorInfo(ErrorMessage predef,int line,int pos) {
-	     msgContainer = predef;
-	     this.line = line;
-	     this.pos = pos;
-	 }
-	 
-	 public void report() {
-	 	System.err.println( ((msgContainer.isWarning() )?("WARNING"):("ERROR")) + 
-	 						" : " + msgContainer.getMessage() + "\n" +
-	 		     	        "\tline : " + line + ", " + "position : " + pos + "\n");
-	 }
-
-}
-
 public class ErrorsTable {
 	// All kinds of error
 	public enum ErrIdent { 	ExtraCharacters,
@@ -84,38 +68,117 @@ public class ErrorsTable {
 					 		UndefOperand,
 					 		UnsupportedOperands,
 					 		DefinedButUnused, BaseIndexComb,
-					 		UndefMemType
+					 		UndefMemType,
+					 		JumpOutOfRange,
+					 		MacroNotClosed,
+					 		MacroDirectiveOutside,
+					 		MacroArgumentsNumb,
+					 		MacroNestedTooDeep,
+					 		IncludeNotFound,
+					 		IncludeRecursive,
+					 		DupCountNotPositive,
+					 		ConditionNotAbsolute,
+					 		ConditionSymbolExpected,
+					 		ConditionalNotOpened,
+					 		ConditionalNotClosed,
+					 		ElseDuplicated,
+					 		ConstantNotAbsolute,
+					 		ConstantRedefined,
+					 		AlignNotPowerOfTwo,
+					 		DupCountOverflow,
+					 		SegmentTooLarge,
+					 		NameIsConstant
 						 };
 	
-	private ArrayList<Reportable> FoundErrors;
+	// every reporting thread appends into its own buffer, buffers are merged when printed
+	private ConcurrentLinkedQueue < DiagnosticsStore > FoundErrors;
+	private ThreadLocal < DiagnosticsStore > localErrors;
 	private final static TreeMap<ErrIdent,ErrorMessage> Errors; //container for standard errors
-	private int warningsCounter;
-	private int errorsCounter;
+	private final static ErrIdent[] Idents = ErrIdent.values();
+	private LongAdder warningsCounter;
+	private LongAdder errorsCounter;
+	private int maxErrors;
+	private CancellationToken cancellation;
+	private String jsonOutput;
 	
 	public ErrorsTable() {
-		FoundErrors = new ArrayList<Reportable>();
-		warningsCounter = errorsCounter = 0;
+		FoundErrors = new ConcurrentLinkedQueue < DiagnosticsStore > ();
+		localErrors = ThreadLocal.withInitial( () -> {
+			DiagnosticsStore store = new DiagnosticsStore();
+			FoundErrors.add(store);
+			return store;
+		});
+		warningsCounter = new LongAdder();
+		errorsCounter = new LongAdder();
+		maxErrors = Integer.MAX_VALUE;
+		cancellation = new CancellationToken();
+	}
+	
+	public void setMaxErrors(int maxErrors) {
+		this.maxErrors = maxErrors;
+	}
+	
+	// diagnostics are written into this file as one JSON object per line
+	public void setJsonOutput(String fname) {
+		jsonOutput = fname;
+	}
+	
+	public CancellationToken getCancellationToken() {
+		return cancellation;
 	}
 	
 	public void report(ErrIdent err, int line , int pos ) {
+		if ( cancellation.isCancelled() ) return;
 		ErrorMessage predef = Errors.get(err);
-		if ( predef.isWarning() ) 
-			warningsCounter++;
-		else 
-			errorsCounter++;
-		FoundErrors.add( new ErrorInfo(predef,line,pos) );
+		localErrors.get().add( err.ordinal(),line,pos );
+		if ( predef.isWarning() ) {
+			warningsCounter.increment();
+		} else {
+			errorsCounter.increment();
+			if ( errorsCounter.sum() >= maxErrors ) 
+				cancellation.cancel();
+		}
 	}
 	
+	// should be called when all reporting threads have finished
 	public void PrintFoundErrors() {
-		for (Reportable err : FoundErrors ) {
-			err.report();
+		DiagnosticsStore merged = new DiagnosticsStore();
+		for ( DiagnosticsStore store : FoundErrors ) 
+			merged.addAll(store);
+		merged.sortAndCollapse();		// order doesn't depend on threads which reported
+		
+		try {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(System.err));
+			merged.writeText(writer,messages);
+			writer.write("Summary : " + warningsCounter.sum() + " Warnings, " +
+						 + errorsCounter.sum() + " Errors were found.\n");
+			if ( cancellation.isCancelled() ) 
+				writer.write("Error limit was reached, " + cancellation.getSkippedLines() + " lines were skipped.\n");
+			writer.flush();
+		} catch (IOException exc) {
+			System.err.println("Error while printing diagnostics : " + exc.getMessage());
 		}
-		System.err.println("Summary : " + warningsCounter + " Warnings, " +
-						    + errorsCounter + " Errors were found.");
+		
+		if ( jsonOutput != null ) 
+			PrintFoundErrorsJson(merged,jsonOutput);
 	}
 	
+	private void PrintFoundErrorsJson(DiagnosticsStore merged,String fname) {
+		try (Writer writer = new BufferedWriter(new FileWriter(fname))) {
+			merged.writeJsonLines(writer,messages);
+		} catch (IOException exc) {
+			System.err.println("Error while creating diagnostics file : " + exc.getMessage());
+		}
+	}
+	
+	private final static DiagnosticsStore.MessageSource messages = new DiagnosticsStore.MessageSource() {
+		public String getMessage(int id) { return Errors.get(Idents[id]).getMessage(); }
+		public boolean isWarning(int id) { return Errors.get(Idents[id]).isWarning(); }
+		public String getName(int id) { return Idents[id].name(); }
+	};
+	
 	public boolean isCritical() {
-		return errorsCounter > 0;
+		return errorsCounter.sum() > 0;
 	}
 	
 	static {
@@ -154,6 +217,25 @@ public class ErrorsTable {
 		Errors.put(ErrIdent.UndefinedIdentifier, new Error("Identifier was not declared."));
 		Errors.put(ErrIdent.BaseIndexComb,new Error("Combination of base and index register isn't allowed.") );
 		Errors.put(ErrIdent.UndefMemType, new Error("Memory type is not defined."));
+		Errors.put(ErrIdent.JumpOutOfRange, new Error("Jump destination is out of range."));
+		Errors.put(ErrIdent.MacroNotClosed, new Error("Macro definition wasn't closed by ENDM."));
+		Errors.put(ErrIdent.MacroDirectiveOutside, new Error("Directive can be used only inside of macro definition."));
+		Errors.put(ErrIdent.MacroArgumentsNumb, new Error("Macro was called with more arguments than it has parameters."));
+		Errors.put(ErrIdent.MacroNestedTooDeep, new Error("Macro calls are nested too deep."));
+		Errors.put(ErrIdent.IncludeNotFound, new Error("Include file not found."));
+		Errors.put(ErrIdent.IncludeRecursive, new Error("File includes itself."));
+		Errors.put(ErrIdent.DupCountNotPositive, new Error("Count of duplication must be positive."));
+		Errors.put(ErrIdent.ConditionNotAbsolute, new Error("Condition must be an absolute expression."));
+		Errors.put(ErrIdent.ConditionSymbolExpected, new Error("Symbol name expected after IFDEF or IFNDEF."));
+		Errors.put(ErrIdent.ConditionalNotOpened, new Error("ELSE or ENDIF without matching IF."));
+		Errors.put(ErrIdent.ConditionalNotClosed, new Error("Conditional block wasn't closed by ENDIF."));
+		Errors.put(ErrIdent.ElseDuplicated, new Error("ELSE was already used in this conditional block."));
+		Errors.put(ErrIdent.ConstantNotAbsolute, new Error("Value of symbolic constant must be an absolute expression."));
+		Errors.put(ErrIdent.ConstantRedefined, new Error("Symbolic constant defined by EQU can't be redefined."));
+		Errors.put(ErrIdent.AlignNotPowerOfTwo, new Error("ALIGN value must be a power of two not greater than 16."));
+		Errors.put(ErrIdent.DupCountOverflow, new Error("Number of duplicated elements is too big."));
+		Errors.put(ErrIdent.SegmentTooLarge, new Error("Segment size exceeds its offset size."));
+		Errors.put(ErrIdent.NameIsConstant, new Error("Name is already defined as symbolic constant."));
 	}
 	
 }
@@ -1,10 +0,0 @@
-package translator.exc;
-
-public class PriorityException extends Exception {
-
-	/**
-	 * 
-	 */
-	private static final long serialVersionUID = -1994218199078598196L;
-
-}
@@ -0,0 +1,91 @@
+package translator.lexer;
+
+import java.util.ArrayDeque;
+
+// State of conditional assembly. Lines of disabled blocks are never lexed,
+// only their first word is scanned to keep track of nested blocks.
+class Conditionals {
+	enum Keyword { IF, IFE, IFDEF, IFNDEF, ELSE, ENDIF };
+	
+	private final static Keyword[] KEYWORDS = Keyword.values();
+	
+	private ArrayDeque < Block > blocks;
+	private boolean active;
+	
+	private static class Block {
+		private final boolean enclosingActive;
+		private final boolean condition;
+		private final int lineNumb;
+		private boolean inElse;
+		
+		Block(boolean enclosingActive,boolean condition,int lineNumb) {
+			this.enclosingActive = enclosingActive;
+			this.condition = condition;
+			this.lineNumb = lineNumb;
+			inElse = false;
+		}
+		
+		boolean isActive() {
+			return enclosingActive && condition != inElse;
+		}
+	}
+	
+	Conditionals() {
+		blocks = new ArrayDeque < Block > ();
+		active = true;
+	}
+	
+	boolean isActive() {
+		return active;
+	}
+	
+	boolean isClosed() {
+		return blocks.isEmpty();
+	}
+	
+	int openedAt() {
+		return blocks.peek().lineNumb;
+	}
+	
+	// condition of block inside of disabled one doesn't matter
+	void open(boolean condition,int lineNumb) {
+		Block block = new Block(active,condition,lineNumb);
+		blocks.push(block);
+		active = block.isActive();
+	}
+	
+	boolean toElse() {
+		if ( blocks.isEmpty() || blocks.peek().inElse ) return false;
+		blocks.peek().inElse = true;
+		active = blocks.peek().isActive();
+		return true;
+	}
+	
+	boolean close() {
+		if ( blocks.isEmpty() ) return false;
+		active = blocks.pop().enclosingActive;
+		return true;
+	}
+	
+	// keyword of conditional assembly the line starts with, 
+	// characters are compared in place, so nothing is allocated
+	static Keyword keywordOf(String line) {
+		int len = line.length();
+		int start = 0;
+		while ( start < len && Character.isWhitespace(line.charAt(start)) ) 
+			start++;
+		int end = start;
+		while ( end < len && Character.isLetter(line.charAt(end)) ) 
+			end++;
+		if ( end == start || (end < len && !Character.isWhitespace(line.charAt(end)) && line.charAt(end) != ';') ) 
+			return null;
+		
+		for ( Keyword keyword : KEYWORDS ) {
+			String word = keyword.name();
+			if ( word.length() == end - start && line.regionMatches(true,start,word,0,word.length()) ) 
+				return keyword;
+		}
+		return null;
+	}
+	
+}
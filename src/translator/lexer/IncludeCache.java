@@ -0,0 +1,63 @@
+package translator.lexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+// Include files lexed once per JVM. Entry is reused while both modification time
+// and hash of file content stay the same, so it is shared by all assembled units.
+public class IncludeCache {
+	private final static IncludeCache shared = new IncludeCache();
+	
+	private ConcurrentHashMap < String, IncludedFile > files;
+	private AtomicLong hits;
+	private AtomicLong misses;
+	
+	public interface FileLexer {
+		IncludedFile lex(String path,long modified,long hash,String content);
+	}
+	
+	public IncludeCache() {
+		files = new ConcurrentHashMap < String, IncludedFile > ();
+		hits = new AtomicLong();
+		misses = new AtomicLong();
+	}
+	
+	public static IncludeCache shared() {
+		return shared;
+	}
+	
+	public IncludedFile get(File file,FileLexer lexer) throws IOException {
+		String path = file.getCanonicalPath();
+		long modified = file.lastModified();
+		byte[] content = Files.readAllBytes(file.toPath());
+		CRC32C crc = new CRC32C();
+		crc.update(content,0,content.length);
+		long hash = crc.getValue();
+		
+		IncludedFile cached = files.get(path);
+		if ( cached != null && cached.isSame(modified,hash) ) {
+			hits.incrementAndGet();
+			return cached;
+		}
+		misses.incrementAndGet();
+		IncludedFile lexed = lexer.lex(path,modified,hash,new String(content));
+		files.put(path,lexed);
+		return lexed;
+	}
+	
+	public long getHits() {
+		return hits.get();
+	}
+	
+	public long getMisses() {
+		return misses.get();
+	}
+	
+	public void clear() {
+		files.clear();
+	}
+}
@@ -0,0 +1,103 @@
+package translator.lexer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import translator.table.SymbolTable;
+import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
+import translator.table.tablecomponents.userdefined.Identifier;
+import translator.table.tablecomponents.userdefined.Label;
+import translator.table.tablecomponents.userdefined.Label.LabelType;
+import translator.table.tablecomponents.userdefined.NamedConstant;
+
+// Lexed content of include file. It is never changed after lexing,
+// so one instance is spliced into every unit which includes the file.
+public class IncludedFile {
+	private final String path;
+	private final long modified;
+	private final long hash;
+	private final List < Line > lines;
+	
+	public static class Line {
+		private final String text;
+		private final Atom[] atoms;		// null when line couldn't be lexed or includes other file
+		private final String include;
+		private final String badToken;
+		
+		private Line(String text,Atom[] atoms,String include,String badToken) {
+			this.text = text;
+			this.atoms = atoms;
+			this.include = include;
+			this.badToken = badToken;
+		}
+		
+		public static Line lexed(String text,ArrayList < Atom > atoms) {
+			return new Line(text,atoms.toArray(new Atom[atoms.size()]),null,null);
+		}
+		
+		public static Line include(String text,String include) {
+			return new Line(text,null,include,null);
+		}
+		
+		public static Line bad(String text,String badToken) {
+			return new Line(text,null,null,badToken);
+		}
+		
+		public String getText() {
+			return text;
+		}
+		
+		public String getInclude() {
+			return include;
+		}
+		
+		public String getBadToken() {
+			return badToken;
+		}
+		
+		public boolean isLexed() {
+			return atoms != null;
+		}
+		
+		// identifiers collect symbol information in later phases, so every unit gets its own ones,
+		// symbolic constants are defined by unit, so names are bound to constants of its table
+		public ArrayList < Atom > bindAtoms(SymbolTable tab) {
+			ArrayList < Atom > bound = new ArrayList < Atom > (atoms.length);
+			for ( Atom atom : atoms ) {
+				if ( atom.getType() == AtomType.Label ) 
+					bound.add(new Label(atom.getName(),LabelType.NEAR));
+				else if ( atom.getType() == AtomType.Identifier || atom instanceof NamedConstant ) 
+					bound.add(bindName(tab,atom.getName()));
+				else 
+					bound.add(atom);
+			}
+			return bound;
+		}
+		
+		private static Atom bindName(SymbolTable tab,String name) {
+			Atom found = tab.Search(name);
+			return ( found instanceof NamedConstant )?(found):(new Identifier(name));
+		}
+	}
+	
+	public IncludedFile(String path,long modified,long hash,List < Line > lines) {
+		this.path = path;
+		this.modified = modified;
+		this.hash = hash;
+		this.lines = Collections.unmodifiableList(new ArrayList < Line > (lines));
+	}
+	
+	public String getPath() {
+		return path;
+	}
+	
+	public boolean isSame(long modified,long hash) {
+		return this.modified == modified && this.hash == hash;
+	}
+	
+	public List < Line > getLines() {
+		return lines;
+	}
+}
@@ -2,8 +2,12 @@ package translator.lexer;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Scanner;
 import java.util.StringTokenizer;
 import java.util.regex.Matcher;
@@ -12,21 +16,45 @@ import java.util.regex.Pattern;
 import translator.Printable;
 import translator.Translator;
 import translator.errorhandling.ErrorsTable.ErrIdent;
-import translator.exc.BadConstant;
-import translator.exc.NoSuchAtomException;
+import translator.exc.*;
 import translator.table.SymbolTable;
 import translator.table.tablecomponents.*;
 import translator.table.tablecomponents.userdefined.Constant;
 import translator.table.tablecomponents.userdefined.Identifier;
 import translator.table.tablecomponents.userdefined.Label;
 import translator.table.tablecomponents.userdefined.Label.LabelType;
+import translator.table.tablecomponents.userdefined.NamedConstant;
+import translator.table.tablecomponents.userdefined.StringConstant;
+import translator.termworks.syntax.operands.AbsoluteExpr;
 
 public class Lexer extends Printable {
 	private SymbolTable tableRef;
 	private ArrayList< ParsedLine > lexerProduct = null ;
+	private HashMap < String, Macro > macros = new HashMap < String, Macro > ();
+	private MacroExpansion.LocalNames localNames = new MacroExpansion.LocalNames();
+	private Macro curMacro = null;
+	private ParsedLine curMacroLine = null;
+	private int nestedMacros = 0;		// definitions inside of macro body, they are defined when macro is expanded
+	private File sourceDir;
+	private ArrayDeque < String > includeStack = new ArrayDeque < String > ();
+	private Conditionals conditionals = new Conditionals();
+	private HashSet < String > definedNames = new HashSet < String > ();
+	
+	private final static Atom separator = new Atom(",",AtomType.Separator) {		// separators hold no state, so one is shared
+		public String toString() { return "Comma separator"; }
+	};
+	
+	private final static Pattern includePattern = Pattern.compile("^include\\s+(\\S+)$",Pattern.CASE_INSENSITIVE);
+	private final static Pattern commentsPattern = Pattern.compile("((?:[^;'\"]|'[^']*'?|\"[^\"]*\"?)*).*");	// ';' inside quotes doesn't start comment
 	
 	public Lexer(SymbolTable tab,File f) {
 		tableRef = tab ;
+		sourceDir = f.getAbsoluteFile().getParentFile();
+		try {
+			includeStack.push(f.getCanonicalPath());		// source can't include itself
+		} catch (IOException e) {
+			includeStack.push(f.getAbsolutePath());
+		}
 		Scanner srcScn = null;
 		try {
 			srcScn = new Scanner(f);
@@ -60,12 +88,30 @@ public class Lexer extends Printable {
 		int lineNumb = 1;
  		
 			while ( srcScn.hasNextLine() ) {
-				Matcher commentsMatcher = Pattern.compile("([^;]*).*").matcher(srcScn.nextLine());
+				if ( Translator.errTab.getCancellationToken().isCancelled() ) {
+					skipRest(srcScn);
+					break;
+				}
+				String sourceLine = srcScn.nextLine();
+				Conditionals.Keyword keyword = Conditionals.keywordOf(sourceLine);
+				if ( keyword == null && !conditionals.isActive() ) {		// disabled line costs only scan of its first word
+					lineNumb++;
+					continue;
+				}
+				Matcher commentsMatcher = commentsPattern.matcher(sourceLine);
 				commentsMatcher.matches();
 				String lineWithoutComments = commentsMatcher.group(1); 
 				try {
-					if ( lineWithoutComments.trim().length() != 0 ) {					
-						 retList.add(new ParsedLine(lineNumb,ParseLine(lineWithoutComments.trim()),lineWithoutComments));
+					Matcher includeMatcher = includePattern.matcher(lineWithoutComments.trim());
+					if ( keyword != null ) {
+						final int conditionLineNumb = lineNumb;
+						conditional(keyword,lineNumb,
+								() -> new ParsedLine(conditionLineNumb,ParseLine(lineWithoutComments.trim()),lineWithoutComments));
+					} else if ( includeMatcher.matches() ) {
+						ParsedLine includeLine = new ParsedLine(lineNumb,includeAtoms(),lineWithoutComments);
+						include(retList,includeLine,resolve(sourceDir,includeMatcher.group(1)));
+					} else if ( lineWithoutComments.trim().length() != 0 ) {					
+						 addLine(retList,new ParsedLine(lineNumb,ParseLine(lineWithoutComments.trim()),lineWithoutComments));
 					}
 				} catch (NoSuchAtomException e) {
 					Translator.errTab.report(ErrIdent.UnexpectedSymbolInToken, 
@@ -76,9 +122,260 @@ public class Lexer extends Printable {
 				}
 			}
 			
+			if ( !conditionals.isClosed() ) 
+				Translator.errTab.report(ErrIdent.ConditionalNotClosed,conditionals.openedAt(),1);
+			if ( curMacro != null ) 
+				Translator.errTab.report(ErrIdent.MacroNotClosed,curMacroLine.getLineNumb(),curMacroLine.findPos(curMacroLine.getAtomAt(1)));
+			
 		return retList ;
 	}
 	
+	// lines of macro definitions are kept as templates, macro calls are replaced by their expansion
+	private void addLine(ArrayList < ParsedLine > retList,ParsedLine line) {
+		if ( curMacro != null ) {
+			if ( isDirective(line,1,"macro") ) 
+				nestedMacros++;
+			if ( isDirective(line,0,"endm") && nestedMacros == 0 ) {
+				macros.put(curMacro.getName(),curMacro);
+				curMacro = null;
+			} else if ( isDirective(line,0,"endm") ) {
+				nestedMacros--;
+				curMacro.addLine(line);
+			} else if ( isDirective(line,0,"local") && nestedMacros == 0 ) {
+				for ( Atom atom : line.subArray(1) ) 
+					if ( atom.getType() != AtomType.Separator ) curMacro.addLocal(atom.getName());
+			} else 
+				curMacro.addLine(line);
+			return;
+		}
+		
+		if ( isDirective(line,1,"macro") && line.getAtomAt(0).getType() == AtomType.Identifier ) {
+			ArrayList < String > params = new ArrayList < String > ();
+			for ( Atom atom : line.subArray(2) ) {
+				if ( atom.getType() == AtomType.Separator ) continue;
+				if ( atom.getType() != AtomType.Identifier ) 
+					Translator.errTab.report(ErrIdent.NameConflictsWithReserved,line.getLineNumb(),line.findPos(atom));
+				params.add(atom.getName());
+			}
+			curMacro = new Macro(line.getAtomAt(0).getName(),params);
+			curMacroLine = line;
+			return;
+		}
+		
+		if ( isDirective(line,0,"endm") || isDirective(line,0,"local") ) {
+			Translator.errTab.report(ErrIdent.MacroDirectiveOutside,line.getLineNumb(),line.findPos(line.getAtomAt(0)));
+			return;
+		}
+		
+		// expanded lines can define macros too, so they go through definition again
+		if ( MacroExpansion.findCall(macros,line.getAtoms()) != -1 ) {
+			MacroExpansion expansion = new MacroExpansion(macros,line,localNames);
+			while ( expansion.hasNext() ) 
+				addLine(retList,expansion.next());
+			return;
+		}
+		
+		emit(retList,line);
+	}
+	
+	// symbolic constant definitions are consumed by lexer, they never reach later phases
+	private void emit(ArrayList < ParsedLine > retList,ParsedLine line) {
+		if ( isDirective(line,1,"equ") || isDirective(line,1,"=") ) {
+			defineConstant(line);
+			return;
+		}
+		defineNames(line);
+		retList.add(line);
+	}
+	
+	// value is evaluated once, every following use of name is lexed into evaluated constant
+	private void defineConstant(ParsedLine line) {
+		Atom name = line.getAtomAt(0);
+		boolean redefinable = line.getAtomAt(1).getName().equals("=");
+		if ( name.getType() != AtomType.Identifier && !(name instanceof NamedConstant) ) {
+			Translator.errTab.report(ErrIdent.NameConflictsWithReserved,line.getLineNumb(),line.findPos(name));
+			return;
+		}
+		if ( name instanceof NamedConstant && !(redefinable && ((NamedConstant) name).isRedefinable()) ) {
+			Translator.errTab.report(ErrIdent.ConstantRedefined,line.getLineNumb(),line.findPos(name));
+			return;
+		}
+		
+		ArrayList < Atom > value = line.subArray(2);
+		if ( !isAbsolute(value) ) {
+			Translator.errTab.report(ErrIdent.ConstantNotAbsolute,line.getLineNumb(),line.findPos(line.getAtomAt(1)));
+			return;
+		}
+		tableRef.AddConstant(new NamedConstant(name.getName(),new AbsoluteExpr(value).value(),redefinable));
+		definedNames.add(name.getName().toLowerCase());
+	}
+	
+	// lines of included file are spliced as if they were written in place of include line
+	private void include(ArrayList < ParsedLine > retList,ParsedLine includeLine,File file) {
+		if ( !file.isFile() ) {
+			Translator.errTab.report(ErrIdent.IncludeNotFound,includeLine.getLineNumb(),includeLine.findPos(file.getName()));
+			return;
+		}
+		
+		IncludedFile included;
+		try {
+			included = IncludeCache.shared().get(file,this::lexIncluded);
+		} catch (IOException e) {
+			Translator.errTab.report(ErrIdent.IncludeNotFound,includeLine.getLineNumb(),includeLine.findPos(file.getName()));
+			return;
+		}
+		if ( includeStack.contains(included.getPath()) ) {
+			Translator.errTab.report(ErrIdent.IncludeRecursive,includeLine.getLineNumb(),includeLine.findPos(file.getName()));
+			return;
+		}
+		
+		includeStack.push(included.getPath());
+		File includedDir = new File(included.getPath()).getParentFile();
+		for ( IncludedFile.Line line : included.getLines() ) {
+			Conditionals.Keyword keyword = Conditionals.keywordOf(line.getText());
+			if ( keyword == null && !conditionals.isActive() ) 
+				continue;
+			if ( keyword != null ) 
+				includedConditional(keyword,includeLine,line);
+			else if ( line.getInclude() != null ) 
+				include(retList,includeLine,resolve(includedDir,line.getInclude()));
+			else if ( line.isLexed() ) 
+				addLine(retList,new ParsedLine(includeLine,line.bindAtoms(tableRef),line.getText()));
+			else 
+				Translator.errTab.report(ErrIdent.UnexpectedSymbolInToken,includeLine.getLineNumb(),includeLine.findPos(includeLine.getAtomAt(0)));
+		}
+		includeStack.pop();
+	}
+	
+	private void includedConditional(Conditionals.Keyword keyword,ParsedLine includeLine,IncludedFile.Line line) {
+		try {
+			conditional(keyword,includeLine.getLineNumb(),() -> {
+				if ( !line.isLexed() ) throw new NoSuchAtomException(line.getBadToken());
+				return new ParsedLine(includeLine,line.bindAtoms(tableRef),line.getText());
+			});
+		} catch (NoSuchAtomException e) {
+			Translator.errTab.report(ErrIdent.UnexpectedSymbolInToken,includeLine.getLineNumb(),includeLine.findPos(includeLine.getAtomAt(0)));
+		}
+	}
+	
+	private interface LineSource {
+		ParsedLine lex() throws NoSuchAtomException;
+	}
+	
+	// line is lexed only when its condition has to be evaluated or an error has to be reported
+	private void conditional(Conditionals.Keyword keyword,int lineNumb,LineSource source) throws NoSuchAtomException {
+		switch ( keyword ) {
+		case ELSE:
+			if ( !conditionals.toElse() ) {
+				ParsedLine line = source.lex();
+				Translator.errTab.report( (conditionals.isClosed())?(ErrIdent.ConditionalNotOpened):(ErrIdent.ElseDuplicated),
+										 line.getLineNumb(),line.findPos(line.getAtomAt(0)));
+			}
+			return;
+		case ENDIF:
+			if ( !conditionals.close() ) {
+				ParsedLine line = source.lex();
+				Translator.errTab.report(ErrIdent.ConditionalNotOpened,line.getLineNumb(),line.findPos(line.getAtomAt(0)));
+			}
+			return;
+		default:
+			boolean condition = false;
+			try {
+				if ( conditionals.isActive() ) 
+					condition = evalCondition(keyword,source.lex());
+			} finally {
+				conditionals.open(condition,lineNumb);
+			}
+		}
+	}
+	
+	private boolean evalCondition(Conditionals.Keyword keyword,ParsedLine line) {
+		ArrayList < Atom > operand = line.subArray(1);
+		if ( keyword == Conditionals.Keyword.IFDEF || keyword == Conditionals.Keyword.IFNDEF ) {
+			if ( operand.size() != 1 || operand.get(0).getType() != AtomType.Identifier ) {
+				Translator.errTab.report(ErrIdent.ConditionSymbolExpected,line.getLineNumb(),line.findPos(line.getAtomAt(0)));
+				return false;
+			}
+			return isDefined(operand.get(0).getName()) == (keyword == Conditionals.Keyword.IFDEF);
+		}
+		
+		if ( !isAbsolute(operand) ) {
+			Translator.errTab.report(ErrIdent.ConditionNotAbsolute,line.getLineNumb(),line.findPos(line.getAtomAt(0)));
+			return false;
+		}
+		return (new AbsoluteExpr(operand).value() != 0) == (keyword == Conditionals.Keyword.IF);
+	}
+	
+	private static boolean isAbsolute(ArrayList < Atom > atoms) {
+		if ( !AbsoluteExpr.isAbsoluteExpr(atoms) ) return false;
+		try {
+			new AbsoluteExpr(atoms).isValidAbsExpr();
+		} catch (MissedOperator | MissedConstant | UnmatchedOpenParenthesis | UnmatchedCloseParenthesis e) {
+			return false;
+		}
+		return true;
+	}
+	
+	// names defined in source before, macros and names defined by compiler flags
+	private boolean isDefined(String name) {
+		String lowerCaseName = name.toLowerCase();
+		return definedNames.contains(lowerCaseName) || macros.containsKey(name) 
+				|| Translator.flags.getDefines().contains(lowerCaseName);
+	}
+	
+	private void defineNames(ParsedLine line) {
+		if ( line.getAtomAt(0).getType() == AtomType.Label ) 
+			definedNames.add(line.getAtomAt(0).getName().toLowerCase());
+		else if ( line.atomsSize() > 1 && line.getAtomAt(0).getType() == AtomType.Identifier
+				&& line.getAtomAt(1).getType() == AtomType.Directive ) 
+			definedNames.add(line.getAtomAt(0).getName().toLowerCase());
+	}
+	
+	private IncludedFile lexIncluded(String path,long modified,long hash,String content) {
+		ArrayList < IncludedFile.Line > lines = new ArrayList < IncludedFile.Line > ();
+		for ( String sourceLine : content.split("\\r?\\n") ) {
+			Matcher commentsMatcher = commentsPattern.matcher(sourceLine);
+			commentsMatcher.matches();
+			String lineWithoutComments = commentsMatcher.group(1);
+			if ( lineWithoutComments.trim().length() == 0 ) continue;
+			
+			Matcher includeMatcher = includePattern.matcher(lineWithoutComments.trim());
+			if ( includeMatcher.matches() ) {
+				lines.add(IncludedFile.Line.include(lineWithoutComments,includeMatcher.group(1)));
+				continue;
+			}
+			try {
+				lines.add(IncludedFile.Line.lexed(lineWithoutComments,ParseLine(lineWithoutComments.trim())));
+			} catch (NoSuchAtomException e) {
+				lines.add(IncludedFile.Line.bad(lineWithoutComments,e.tokenWhereFound));
+			}
+		}
+		return new IncludedFile(path,modified,hash,lines);
+	}
+	
+	private ArrayList < Atom > includeAtoms() {
+		ArrayList < Atom > atoms = new ArrayList < Atom > ();
+		atoms.add(tableRef.Search("include"));
+		return atoms;
+	}
+	
+	private static File resolve(File dir,String name) {
+		File file = new File(name);
+		return ( file.isAbsolute() )?(file):(new File(dir,name));
+	}
+	
+	private static boolean isDirective(ParsedLine line,int index,String name) {
+		return line.atomsSize() > index && line.getAtomAt(index).getType() == AtomType.Directive 
+				&& line.getAtomAt(index).getName().equals(name);
+	}
+	
+	private void skipRest(Scanner srcScn) {
+		long skipped = 0;
+		for ( ; srcScn.hasNextLine(); skipped++ ) 
+			srcScn.nextLine();
+		Translator.errTab.getCancellationToken().linesSkipped(skipped);
+	}
+	
 	private ArrayList < Atom > ParseLine(String line) throws NoSuchAtomException {
 		ArrayList < Atom > curParsedLine = new ArrayList< Atom >();
 		Matcher labelMatcher = Label.labelPattern.matcher(line);
@@ -89,10 +386,15 @@ public class Lexer extends Printable {
 			line = labelMatcher.group(2);
 		}
 		
-		StringTokenizer tokensParser = new StringTokenizer(line," ,[]:+*-/.<>()",true);	
+		StringTokenizer tokensParser = new StringTokenizer(line," ,[]:+*-/.<>()='\"",true);	
 		while ( tokensParser.hasMoreTokens() ) {
 			
-			String lineToken = tokensParser.nextToken().trim();
+			String lineToken = tokensParser.nextToken();
+			if ( lineToken.equals("'") || lineToken.equals("\"") ) {
+				curParsedLine.add( buildString(lineToken,tokensParser) );
+				continue;
+			}
+			lineToken = lineToken.trim();
 			if (lineToken.length() != 0) {
 				curParsedLine.add( buildAtom(lineToken) );
 			}
@@ -100,6 +402,20 @@ public class Lexer extends Printable {
 		
 		return curParsedLine;
 	}
+	
+	// delimiters inside of quotes are part of string, so they are collected as they are
+	private static Atom buildString(String quote,StringTokenizer tokensParser) throws NoSuchAtomException {
+		StringBuffer literal = new StringBuffer(quote);
+		while ( tokensParser.hasMoreTokens() ) {
+			String token = tokensParser.nextToken();
+			literal.append(token);
+			if ( token.equals(quote) ) {
+				if ( literal.length() == 2 ) break;
+				return new StringConstant(literal.toString());
+			}
+		}
+		throw new NoSuchAtomException(literal.toString());
+	}
 			
 	public  Atom buildAtom(String token) throws NoSuchAtomException {
 		String lowerCaseToken = token.toLowerCase();
@@ -108,11 +424,7 @@ public class Lexer extends Printable {
 			return new Constant(token);
 		} catch (BadConstant e) {
 			if ( Identifier.isIdentifierAllowed(lowerCaseToken) ) return new Identifier(token);
-			if ( token.equals(",") ) return new Atom(",") {
-				public AtomType getType() { return AtomType.Separator; }
-				public String toString() { return "Comma separator"; }
-				public Atom searchedPosAtom() { return this; }
-			};
+			if ( token.equals(",") ) return separator;
 			
 		}
 		
@@ -0,0 +1,167 @@
+package translator.lexer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+
+import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
+import translator.table.tablecomponents.userdefined.Identifier;
+import translator.table.tablecomponents.userdefined.Label;
+import translator.table.tablecomponents.userdefined.Label.LabelType;
+
+// Macro definition. Body lines are tokenized once, when macro is defined,
+// and kept as templates, where parameters and local labels are slots.
+// Expansion only fills the slots, text of body is never lexed again.
+public class Macro {
+	private final static int SHARED = -1;		// reserved atoms and constants are shared by all expansions
+	private final static int FRESH = -2;		// user identifiers keep state, so every expansion gets new one
+	private final static int LOCAL_BASE = -3;	// LOCAL_BASE - i is the slot of i-th local label
+
+	private String name;
+	private ArrayList < String > params;
+	private ArrayList < String > locals;
+	private ArrayList < TemplateLine > body;
+
+	public Macro(String name,ArrayList < String > params) {
+		this.name = name;
+		this.params = params;
+		locals = new ArrayList < String > ();
+		body = new ArrayList < TemplateLine > ();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int paramsNumb() {
+		return params.size();
+	}
+
+	public int localsNumb() {
+		return locals.size();
+	}
+
+	public int linesNumb() {
+		return body.size();
+	}
+
+	public void addLocal(String local) {
+		locals.add(local.toLowerCase());
+	}
+
+	public void addLine(ParsedLine line) {
+		body.add(new TemplateLine(line));
+	}
+
+	private int slotOf(String token) {
+		String lowerCaseToken = token.toLowerCase();
+		int param = params.indexOf(lowerCaseToken);
+		if ( param != -1 ) return param;
+		int local = locals.indexOf(lowerCaseToken);
+		if ( local != -1 ) return LOCAL_BASE - local;
+		return SHARED;
+	}
+
+	// argAtoms and argTexts are values of parameters, missing ones are empty
+	ParsedLine instantiate(int lineIndex,ParsedLine invocation,
+						   ArrayList < ArrayList < Atom > > argAtoms,String[] argTexts,String[] localNames) {
+		return body.get(lineIndex).instantiate(invocation,argAtoms,argTexts,localNames);
+	}
+
+	private class TemplateLine {
+		private Atom[] atoms;
+		private int[] atomSlots;
+		private String[] textPieces;
+		private int[] textSlots;
+
+		TemplateLine(ParsedLine line) {
+			List < Atom > lineAtoms = line.getAtoms();
+			atoms = lineAtoms.toArray(new Atom[lineAtoms.size()]);
+			atomSlots = new int[atoms.length];
+			for ( int i = 0; i < atoms.length; i++ ) {
+				if ( atoms[i].getType() == AtomType.Identifier || atoms[i].getType() == AtomType.Label ) {
+					int slot = slotOf(atoms[i].getName());
+					atomSlots[i] = ( slot == SHARED )?(FRESH):(slot);
+				} else
+					atomSlots[i] = SHARED;
+			}
+
+			ArrayList < String > pieces = new ArrayList < String > ();
+			ArrayList < Integer > slots = new ArrayList < Integer > ();
+			StringBuffer literal = new StringBuffer();
+			// text inside of quotes isn't substituted, as string constant among atoms isn't
+			StringTokenizer tokens = new StringTokenizer(line.getLine()," \t,[]:+*-/.<>()'\"=",true);
+			String quote = null;
+			while ( tokens.hasMoreTokens() ) {
+				String token = tokens.nextToken();
+				if ( quote == null && ( token.equals("'") || token.equals("\"") ) ) 
+					quote = token;
+				else if ( token.equals(quote) ) 
+					quote = null;
+				int slot = ( quote == null )?(slotOf(token)):(SHARED);
+				if ( slot == SHARED ) {
+					literal.append(token);
+					continue;
+				}
+				pieces.add(literal.toString());
+				slots.add(SHARED);
+				literal = new StringBuffer();
+				pieces.add(null);
+				slots.add(slot);
+			}
+			pieces.add(literal.toString());
+			slots.add(SHARED);
+
+			textPieces = pieces.toArray(new String[pieces.size()]);
+			textSlots = new int[slots.size()];
+			for ( int i = 0; i < textSlots.length; i++ )
+				textSlots[i] = slots.get(i);
+		}
+
+		ParsedLine instantiate(ParsedLine invocation,
+							   ArrayList < ArrayList < Atom > > argAtoms,String[] argTexts,String[] localNames) {
+			ArrayList < Atom > lineAtoms = new ArrayList < Atom > (atoms.length);
+			for ( int i = 0; i < atoms.length; i++ ) {
+				int slot = atomSlots[i];
+				boolean isLabel = atoms[i].getType() == AtomType.Label;
+				if ( slot == SHARED )
+					lineAtoms.add(atoms[i]);
+				else if ( slot == FRESH )
+					lineAtoms.add(copyOf(atoms[i].getName(),isLabel));
+				else if ( slot <= LOCAL_BASE )
+					lineAtoms.add(copyOf(localNames[LOCAL_BASE - slot],isLabel));
+				else if ( isLabel && argAtoms.get(slot).size() == 1 )
+					lineAtoms.add(copyOf(argAtoms.get(slot).get(0).getName(),true));
+				else
+					for ( Atom arg : argAtoms.get(slot) )
+						lineAtoms.add(copyOf(arg));
+			}
+
+			StringBuffer text = new StringBuffer();
+			for ( int i = 0; i < textPieces.length; i++ ) {
+				int slot = textSlots[i];
+				if ( slot == SHARED )
+					text.append(textPieces[i]);
+				else if ( slot <= LOCAL_BASE )
+					text.append(localNames[LOCAL_BASE - slot]);
+				else
+					text.append(argTexts[slot]);
+			}
+			return new ParsedLine(invocation,lineAtoms,text.toString());
+		}
+	}
+
+	private static Atom copyOf(String name,boolean isLabel) {
+		if ( isLabel ) return new Label(name,LabelType.NEAR);
+		return new Identifier(name);
+	}
+
+	// arguments are lexed once per invocation, but identifiers among them can't be shared
+	private static Atom copyOf(Atom atom) {
+		if ( atom.getType() == AtomType.Identifier || atom.getType() == AtomType.Label )
+			return copyOf(atom.getName(),atom.getType() == AtomType.Label);
+		return atom;
+	}
+
+}
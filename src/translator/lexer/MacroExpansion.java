@@ -0,0 +1,175 @@
+package translator.lexer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import translator.Translator;
+import translator.errorhandling.ErrorsTable.ErrIdent;
+import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
+
+// Lines of one macro call, produced one by one when asked for.
+// Macro calls found in expanded lines are expanded in place,
+// every produced line refers to the source line of the outermost call.
+public class MacroExpansion implements Iterator < ParsedLine > {
+	public final static int MAX_NESTING = 64;
+
+	private HashMap < String, Macro > macros;
+	private ParsedLine invocation;
+	private ArrayDeque < Frame > frames;
+	private ParsedLine nextLine;
+	private LocalNames localNames;
+
+	// names of local labels are unique through all expansions of one source
+	public static class LocalNames {
+		private int counter = 0;
+
+		String next() {
+			return String.format("??%04X",counter++);
+		}
+	}
+
+	private class Frame {
+		private Macro macro;
+		private ArrayList < ArrayList < Atom > > argAtoms;
+		private String[] argTexts;
+		private String[] locals;
+		private int lineIndex;
+
+		Frame(Macro macro,ParsedLine call,int nameIndex) {
+			this.macro = macro;
+			argAtoms = splitArgs(call.subArray(nameIndex + 1),macro.paramsNumb());
+			argTexts = splitArgsText(call.getLine(),nameIndex,macro.paramsNumb());
+			locals = new String[macro.localsNumb()];
+			for ( int i = 0; i < locals.length; i++ )
+				locals[i] = localNames.next();
+			lineIndex = 0;
+		}
+	}
+
+	public MacroExpansion(HashMap < String, Macro > macros,ParsedLine invocation,LocalNames localNames) {
+		this.macros = macros;
+		this.invocation = invocation;
+		this.localNames = localNames;
+		frames = new ArrayDeque < Frame > ();
+		nextLine = null;
+		call(invocation);
+	}
+
+	// index of macro name in line, macro can be preceded by label only
+	public static int findCall(HashMap < String, Macro > macros,List < Atom > atoms) {
+		int nameIndex = ( atoms.size() > 1 && atoms.get(0).getType() == AtomType.Label )?(1):(0);
+		if ( atoms.size() > nameIndex && atoms.get(nameIndex).getType() == AtomType.Identifier
+				&& macros.containsKey(atoms.get(nameIndex).getName()) )
+			return nameIndex;
+		return -1;
+	}
+
+	// label of call line stays as separate line before expansion,
+	// too deep nesting stops the whole expansion, so recursive macros can't run away
+	private void call(ParsedLine call) {
+		int nameIndex = findCall(macros,call.getAtoms());
+		if ( frames.size() == MAX_NESTING ) {
+			Translator.errTab.report(ErrIdent.MacroNestedTooDeep,invocation.getLineNumb(),invocation.findPos(invocation.getAtomAt(0)));
+			frames.clear();
+			return;
+		}
+		Macro macro = macros.get(call.getAtomAt(nameIndex).getName());
+		if ( countArgs(call.subArray(nameIndex + 1)) > macro.paramsNumb() )
+			Translator.errTab.report(ErrIdent.MacroArgumentsNumb,invocation.getLineNumb(),invocation.findPos(call.getAtomAt(nameIndex)));
+		frames.push(new Frame(macro,call,nameIndex));
+		if ( nameIndex == 1 )
+			nextLine = new ParsedLine(invocation,call.subArray(0,1),call.getAtomAt(0).getName() + ":");
+	}
+
+	@Override
+	public boolean hasNext() {
+		while ( nextLine == null && !frames.isEmpty() ) {
+			Frame frame = frames.peek();
+			if ( frame.lineIndex == frame.macro.linesNumb() ) {
+				frames.pop();
+				continue;
+			}
+			ParsedLine line = frame.macro.instantiate(frame.lineIndex++,invocation,frame.argAtoms,frame.argTexts,frame.locals);
+			if ( findCall(macros,line.getAtoms()) != -1 )
+				call(line);
+			else
+				nextLine = line;
+		}
+		return nextLine != null;
+	}
+
+	@Override
+	public ParsedLine next() {
+		if ( !hasNext() ) throw new NoSuchElementException();
+		ParsedLine line = nextLine;
+		nextLine = null;
+		return line;
+	}
+
+	private static int countArgs(ArrayList < Atom > atoms) {
+		return splitArgs(atoms,0).size();
+	}
+
+	// arguments are separated by commas, commas inside of parentheses belong to argument, missing ones are empty
+	private static ArrayList < ArrayList < Atom > > splitArgs(ArrayList < Atom > atoms,int paramsNumb) {
+		ArrayList < ArrayList < Atom > > args = new ArrayList < ArrayList < Atom > > ();
+		ArrayList < Atom > arg = new ArrayList < Atom > ();
+		int depth = 0;
+		for ( Atom atom : atoms ) {
+			if ( atom.getName().equals("(") ) depth++;
+			if ( atom.getName().equals(")") ) depth--;
+			if ( depth == 0 && atom.getType() == AtomType.Separator ) {
+				args.add(arg);
+				arg = new ArrayList < Atom > ();
+			} else
+				arg.add(atom);
+		}
+		if ( !atoms.isEmpty() ) args.add(arg);
+		while ( args.size() < paramsNumb )
+			args.add(new ArrayList < Atom > ());
+		return args;
+	}
+
+	// text of arguments is cut from call line, after label and macro name,
+	// commas inside of quotes and parentheses belong to argument as in splitArgs
+	private static String[] splitArgsText(String line,int nameIndex,int paramsNumb) {
+		String rest = line.trim();
+		if ( nameIndex == 1 )
+			rest = rest.substring(rest.indexOf(':') + 1).trim();
+		int nameEnd = 0;
+		while ( nameEnd < rest.length() && !Character.isWhitespace(rest.charAt(nameEnd)) )
+			nameEnd++;
+		rest = rest.substring(nameEnd).trim();
+
+		ArrayList < String > found = new ArrayList < String > ();
+		int depth = 0, start = 0;
+		char quote = 0;
+		for ( int i = 0; i < rest.length(); i++ ) {
+			char c = rest.charAt(i);
+			if ( quote != 0 ) {
+				if ( c == quote ) quote = 0;
+			} else if ( c == '\'' || c == '"' ) 
+				quote = c;
+			else if ( c == '(' ) 
+				depth++;
+			else if ( c == ')' ) 
+				depth--;
+			else if ( c == ',' && depth == 0 ) {
+				found.add(rest.substring(start,i));
+				start = i + 1;
+			}
+		}
+		if ( !rest.isEmpty() ) found.add(rest.substring(start));
+
+		String[] texts = new String[Math.max(paramsNumb,1)];
+		for ( int i = 0; i < texts.length; i++ )
+			texts[i] = ( i < found.size() )?(found.get(i).trim()):("");
+		return texts;
+	}
+
+}
@@ -1,38 +1,66 @@
 package translator.lexer;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import translator.table.tablecomponents.Atom;
 import translator.table.tablecomponents.AtomType;
 
+// Line is never changed after it was created, every transformation makes new line,
+// so lines are read by several threads without locking.
 public class ParsedLine {
-	private int lineNumb;
-	private ArrayList<Atom> atoms;
-	private String fullLineWithoutComments;
+	private final int lineNumb;
+	private final List<Atom> atoms;
+	private final String fullLineWithoutComments;
+	private final ParsedLine invocation;		// source line of macro call or include which produced this line
 	
 	public ParsedLine(int lineNumb, ArrayList<Atom> atoms ,String fullLineWithoutComments) {
 		this.lineNumb = lineNumb;
-		this.atoms = atoms;
+		this.atoms = frozen(atoms);
 		this.fullLineWithoutComments = fullLineWithoutComments;
+		this.invocation = null;
+	}
+	
+	// line of macro expansion or included file, its number and error positions are the ones of
+	// source line which produced it, nested expansions refer to the outermost one
+	public ParsedLine(ParsedLine invocation, ArrayList<Atom> atoms ,String fullLineWithoutComments) {
+		this.lineNumb = invocation.lineNumb;
+		this.atoms = frozen(atoms);
+		this.fullLineWithoutComments = fullLineWithoutComments;
+		this.invocation = ( invocation.invocation != null )?(invocation.invocation):(invocation);
 	}
 	
 	public ParsedLine(ParsedLine line, ArrayList< Atom > atoms) {
 		this.lineNumb = line.lineNumb;
 		this.fullLineWithoutComments = line.fullLineWithoutComments;
-		this.atoms = atoms;
+		this.invocation = line.invocation;
+		this.atoms = frozen(atoms);
+	}
+	
+	// exact sized copy without wrapper, lines of every phase are alive together
+	private static List<Atom> frozen(ArrayList<Atom> atoms) {
+		return List.copyOf(atoms);
+	}
+	
+	public boolean isExpanded() {
+		return invocation != null;
+	}
+	
+	public ParsedLine getInvocation() {
+		return invocation;
 	}
 	
-	public synchronized int getLineNumb() {
+	public int getLineNumb() {
 		return lineNumb;
 	}
 	
-	public synchronized ArrayList<Atom> getAtoms() {
+	public List<Atom> getAtoms() {
 		return atoms;
 	}
 
-	public synchronized String getLine() {
+	public String getLine() {
 		return fullLineWithoutComments;
 	}
 	
@@ -56,7 +84,7 @@ public class ParsedLine {
 		return atoms.size();
 	}
 	
-	public synchronized int firstIndexOf(AtomType tp) {
+	public int firstIndexOf(AtomType tp) {
 		for (int i = 0; i < atoms.size() ; i++ ) {
 			if (atoms.get(i).getType() == tp) return  i;
 		}
@@ -64,14 +92,17 @@ public class ParsedLine {
 	}
 	
 	public int findPos(Atom atom) {
+		if ( invocation != null ) return invocation.findPos(invocation.getAtomAt(0));
 		return fullLineWithoutComments.toLowerCase().indexOf( atom.searchedPosAtom().getName().toLowerCase() ) + 1;
 	}
 	
 	public int findPos(String name) { 
+		if ( invocation != null ) return invocation.findPos(invocation.getAtomAt(0));
 		return fullLineWithoutComments.toLowerCase().indexOf( name.toLowerCase() ) + 1;
 	}
 	
 	public int findPos(String name,int numberInLine) {
+		if ( invocation != null ) return invocation.findPos(invocation.getAtomAt(0));
 		int i = 1;
 		Matcher matcher = Pattern.compile("(" + name +")")
 							     .matcher(fullLineWithoutComments);
@@ -90,20 +121,20 @@ public class ParsedLine {
 		return fullLineWithoutComments.matches(regex);
 	}
 
-	public synchronized boolean startsWith( ArrayList < AtomType > pattern) {
+	public boolean startsWith( ArrayList < AtomType > pattern) {
 		if ( pattern.size() > atoms.size() ) return false;
 		return this.checkRegion(0, pattern.size() ,pattern);
 	}
 	
-	public synchronized boolean endsWith( ArrayList < AtomType > pattern) {
+	public boolean endsWith( ArrayList < AtomType > pattern) {
 		return this.matches(atoms.size() - pattern.size(),pattern);
 	}
 	
-	public synchronized boolean matches(ArrayList < AtomType > pattern) {
+	public boolean matches(ArrayList < AtomType > pattern) {
 		return this.matches(0,pattern);
 	}
 	
-	public synchronized boolean matches(int start, ArrayList < AtomType > pattern) {
+	public boolean matches(int start, ArrayList < AtomType > pattern) {
 		return this.matches(start, pattern.size() , pattern);
 	}
 	
@@ -0,0 +1,29 @@
+package translator.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Flight Recorder event which covers one translator phase,
+// recorded as duration event, so it can be laid over GC events of the same recording
+@Name("translator.Phase")
+@Label("Translator Phase")
+@Category("Translator")
+@Description("One phase of source translation")
+class PhaseEvent extends Event {
+	@Label("Phase")
+	String phase;
+	
+	@Label("Lines")
+	long lines;
+	
+	@Label("Atoms")
+	long atoms;
+	
+	@Label("Allocated")
+	@DataAmount
+	long allocated;
+}
@@ -0,0 +1,140 @@
+package translator.profiling;
+
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import translator.Printable;
+import translator.lexer.ParsedLine;
+
+// Collects wall time, cpu time, allocated bytes and throughput of translator phases.
+// Cpu time and allocations are summed over all live threads,
+// so work done by parallel streams inside of phase is counted too.
+// Every phase is emitted as PhaseEvent even when statistic isn't collected.
+public class PhaseStats extends Printable {
+	private final static double NANOS_IN_SEC = 1e9;
+	
+	private boolean enabled;
+	private com.sun.management.ThreadMXBean threads;
+	private ArrayList < Phase > phases;
+	
+	public PhaseStats() {
+		phases = new ArrayList < Phase > ();
+		threads = null;
+		enabled = false;
+	}
+	
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		if ( enabled ) {
+			threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+			if ( threads.isThreadCpuTimeSupported() ) threads.setThreadCpuTimeEnabled(true);
+			if ( threads.isThreadAllocatedMemorySupported() ) threads.setThreadAllocatedMemoryEnabled(true);
+		}
+	}
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	public Phase start(String name) {
+		return new Phase(name);
+	}
+	
+	public class Phase {
+		private String name;
+		private PhaseEvent event;
+		private long wallStart;
+		private long wallTime;
+		private HashMap < Long, Long > cpuStart;
+		private HashMap < Long, Long > allocStart;
+		private long cpuTime;
+		private long allocated;
+		private long lines;
+		private long atoms;
+		
+		private Phase(String name) {
+			this.name = name;
+			event = new PhaseEvent();
+			if ( enabled ) {
+				cpuStart = new HashMap < Long, Long > ();
+				allocStart = new HashMap < Long, Long > ();
+				snapshot(cpuStart,allocStart);
+			}
+			event.begin();
+			wallStart = System.nanoTime();
+		}
+		
+		// term is the product of phase, its lines and atoms are used as throughput counters
+		public void end(ArrayList < ParsedLine > term) {
+			wallTime = System.nanoTime() - wallStart;
+			event.end();
+			
+			lines = term.size();
+			boolean committed = event.shouldCommit();
+			if ( enabled || committed ) 	// counting goes over whole term, disabled stats don't pay for it
+				for ( ParsedLine line : term ) 
+					atoms += line.atomsSize();
+			
+			if ( enabled ) {
+				HashMap < Long, Long > cpuEnd = new HashMap < Long, Long > ();
+				HashMap < Long, Long > allocEnd = new HashMap < Long, Long > ();
+				snapshot(cpuEnd,allocEnd);
+				cpuTime = difference(cpuStart,cpuEnd);
+				allocated = difference(allocStart,allocEnd);
+				phases.add(this);
+			}
+			
+			if ( committed ) {
+				event.phase = name;
+				event.lines = lines;
+				event.atoms = atoms;
+				event.allocated = allocated;
+				event.commit();
+			}
+		}
+	}
+	
+	private void snapshot(HashMap < Long, Long > cpu,HashMap < Long, Long > alloc) {
+		long[] ids = threads.getAllThreadIds();
+		long[] cpuTimes = threads.getThreadCpuTime(ids);
+		long[] allocBytes = threads.getThreadAllocatedBytes(ids);
+		for ( int i = 0; i < ids.length; i++ ) {
+			if ( cpuTimes[i] >= 0 ) cpu.put(ids[i],cpuTimes[i]);
+			if ( allocBytes[i] >= 0 ) alloc.put(ids[i],allocBytes[i]);
+		}
+	}
+	
+	// threads started during phase are counted from zero
+	private static long difference(HashMap < Long, Long > before,HashMap < Long, Long > after) {
+		long sum = 0;
+		for ( Long id : after.keySet() ) {
+			Long start = before.get(id);
+			sum += after.get(id) - ((start == null)?(0):(start));
+		}
+		return sum;
+	}
+	
+	private static long perSecond(long count,long nanos) {
+		return ( nanos == 0 )?(0):((long) (count * NANOS_IN_SEC / nanos));
+	}
+
+	@Override
+	public void genOutput(PrintWriter writer) {
+		writer.println(String.format("%-16s %10s %10s %12s %12s %14s",
+				"Phase","Wall ms","Cpu ms","Lines/sec","Atoms/sec","Allocated"));
+		long wallTotal = 0, cpuTotal = 0, allocTotal = 0;
+		for ( Phase phase : phases ) {
+			writer.println(String.format("%-16s %10.3f %10.3f %12d %12d %14d",
+					phase.name,phase.wallTime / 1e6,phase.cpuTime / 1e6,
+					perSecond(phase.lines,phase.wallTime),perSecond(phase.atoms,phase.wallTime),
+					phase.allocated));
+			wallTotal += phase.wallTime;
+			cpuTotal += phase.cpuTime;
+			allocTotal += phase.allocated;
+		}
+		writer.println(String.format("%-16s %10.3f %10.3f %12s %12s %14d",
+				"Total",wallTotal / 1e6,cpuTotal / 1e6,"","",allocTotal));
+	}
+}
@@ -15,6 +15,8 @@ public class CommandSuit {
 		options.add(option);
 	}
 	
+	// special case is preferred, else the last option matching operands exactly,
+	// widened immediate is tried only if there is no exact match
 	public OperandOption getOptionForOperands(ArrayList < Operand > operands) {
 		OperandOption retOption = null;
 		for (OperandOption option : options ) {
@@ -26,7 +28,20 @@ public class CommandSuit {
 				}
 			}
 		}
-		return retOption;
+		if ( retOption != null ) return retOption;
+		for ( OperandOption option : options ) 
+			if ( option.operandsFit(operands) ) 
+				return option;
+		return null;
+	}
+	
+	// all options able to encode operands, in order of instruction table
+	public ArrayList < OperandOption > getFittingOptions(ArrayList < Operand > operands) {
+		ArrayList < OperandOption > fitting = new ArrayList < OperandOption > ();
+		for ( OperandOption option : options ) 
+			if ( option.operandsFit(operands) ) 
+				fitting.add(option);
+		return fitting;
 	}
 	
 	public boolean isOperandsComninationAllowed(ArrayList < Operand > operands) {
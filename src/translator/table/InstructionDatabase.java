@@ -0,0 +1,128 @@
+package translator.table;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+import translator.table.initializers.InstructionTableCompiler;
+
+// Instruction set read from binary table, compiled from initializers/instructions.txt.
+// Only directory of mnemonics is read at startup, options of mnemonic are decoded
+// when it is used first time, so sources pay only for commands they contain.
+// Both tables are resources, they must be on classpath next to compiled classes.
+// Binary table keeps checksum of text one it was compiled from, binary which is missing
+// or doesn't match text table is compiled again at load.
+//
+// Binary table :
+//   magic ( int ), CRC32 of text table ( int ), kinds number ( byte ), names of operand kinds ( UTF ),
+//   mnemonics number ( short ), for every mnemonic : name ( UTF ), operands number ( byte ), offset of options ( int ),
+//   options length ( int ), options : options number ( byte ), for every option :
+//       opcode length ( byte ), opcode bytes, reg field ( byte, -1 is /r ),
+//       operands number ( byte ), for every operand : kind index ( byte ), special register name ( UTF, empty if none )
+public final class InstructionDatabase {
+	public final static int MAGIC = 0x49534442;	// "ISDB"
+	public final static String RESOURCE = "/translator/table/initializers/instructions.bin";
+	public final static String TEXT_RESOURCE = "/translator/table/initializers/instructions.txt";
+
+	private final OperandKind[] kinds;
+	private final String[] mnemonics;
+	private final int[] operandNumbs;
+	private final int[] offsets;
+	private final byte[] options;
+
+	private InstructionDatabase(DataInputStream in) throws IOException {
+		if ( in.readInt() != MAGIC ) throw new IOException("bad magic number.");
+		in.readInt();
+		kinds = new OperandKind[in.readUnsignedByte()];
+		for ( int i = 0; i < kinds.length; i++ )
+			kinds[i] = OperandKind.valueOf(in.readUTF());
+		int mnemonicsNumb = in.readUnsignedShort();
+		mnemonics = new String[mnemonicsNumb];
+		operandNumbs = new int[mnemonicsNumb];
+		offsets = new int[mnemonicsNumb];
+		for ( int i = 0; i < mnemonicsNumb; i++ ) {
+			mnemonics[i] = in.readUTF();
+			operandNumbs[i] = in.readUnsignedByte();
+			offsets[i] = in.readInt();
+		}
+		options = new byte[in.readInt()];
+		in.readFully(options);
+	}
+
+	public static InstructionDatabase load() {
+		try {
+			byte[] binary = readResource(RESOURCE);
+			byte[] table = readResource(TEXT_RESOURCE);
+			if ( table != null && !matches(binary,table) ) {
+				if ( binary != null ) System.err.println("Warning : " + RESOURCE + " is out of date, " + TEXT_RESOURCE + " is compiled instead.");
+				binary = InstructionTableCompiler.compile(table);
+			}
+			if ( binary == null ) 
+				throw new IOException("resources " + RESOURCE + " and " + TEXT_RESOURCE + " weren't found on classpath.");
+			return new InstructionDatabase(new DataInputStream(new ByteArrayInputStream(binary)));
+		} catch (IOException | IllegalArgumentException e) {
+			System.err.println("Error : Instruction table can't be read, " + e.getMessage());
+			System.exit(1);
+			return null;
+		}
+	}
+
+	public static int checksumOf(byte[] table) {
+		CRC32 crc = new CRC32();
+		crc.update(table);
+		return (int) crc.getValue();
+	}
+
+	private static boolean matches(byte[] binary,byte[] table) {
+		if ( binary == null || binary.length < 8 ) return false;
+		ByteBuffer header = ByteBuffer.wrap(binary);
+		return header.getInt(0) == MAGIC && header.getInt(4) == checksumOf(table);
+	}
+
+	private static byte[] readResource(String name) throws IOException {
+		try ( InputStream stream = InstructionDatabase.class.getResourceAsStream(name) ) {
+			return ( stream == null )?(null):(stream.readAllBytes());
+		}
+	}
+
+	public int size() {
+		return mnemonics.length;
+	}
+
+	public String getMnemonic(int index) {
+		return mnemonics[index];
+	}
+
+	public int getOperandNumb(int index) {
+		return operandNumbs[index];
+	}
+
+	public CommandSuit decodeSuit(int index) {
+		int pos = offsets[index];
+		CommandSuit suit = new CommandSuit();
+		int optionsNumb = options[pos++];
+		for ( int i = 0; i < optionsNumb; i++ ) {
+			byte[] opcode = new byte[options[pos++]];
+			for ( int j = 0; j < opcode.length; j++ )
+				opcode[j] = options[pos++];
+			byte regField = options[pos++];
+			int operandsNumb = options[pos++];
+			ArrayList < OperandKind > operandKinds = new ArrayList < OperandKind > (operandsNumb);
+			ArrayList < String > specialNames = new ArrayList < String > (operandsNumb);
+			for ( int j = 0; j < operandsNumb; j++ ) {
+				operandKinds.add(kinds[options[pos++]]);
+				int nameLength = ((options[pos] & 0xFF) << 8) | (options[pos + 1] & 0xFF);
+				pos += 2;
+				specialNames.add( (nameLength == 0)?(null):(new String(options,pos,nameLength,StandardCharsets.ISO_8859_1)) );
+				pos += nameLength;
+			}
+			suit.addOption(new OperandOption(opcode,regField,operandKinds,specialNames));
+		}
+		return suit;
+	}
+}
@@ -1,10 +1,24 @@
 package translator.table;
 
 public enum OperandKind {
-	rel8,rel16,rel32,
-	r8,r16,r32,
-	m8,m16,m32,
-	imm8,imm16,imm32;
+	rel8(1),rel16(2),rel32(4),
+	r8(1),r16(2),r32(4),
+	m8(1),m16(2),m32(4),
+	imm8(1),imm16(2),imm32(4);
+	
+	private final int size;
+	
+	OperandKind(int size) {
+		this.size = size;
+	}
+	
+	public int getSize() {
+		return size;
+	}
+	
+	public boolean isImmediate() {
+		return this == imm8 || this == imm16 || this == imm32;
+	}
 		
 	final public static byte MEMORY = 0;  
 	final public static byte RELATIVE = 1;
@@ -37,6 +51,8 @@ public enum OperandKind {
 	private static OperandKind whatKindOfRelative(int byteSize) {
 		switch (byteSize) {
 			case 1:	return rel8;
+			case 2:	return rel16;
+			case 4: return rel32;
 		}
 		return null;
 	}
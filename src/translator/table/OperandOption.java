@@ -4,64 +4,74 @@ import java.util.ArrayList;
 import java.util.Map.Entry;
 import java.util.AbstractMap.SimpleEntry;
 
+import translator.termworks.syntax.operands.AbsoluteExpr;
 import translator.termworks.syntax.operands.Operand;
 
 public final class OperandOption {
-	private String opcode;
-	private byte regAdditionalOpcode;
+	private final String opcode;
+	private final int opcodeLength;
+	private final byte regAdditionalOpcode;
 	private ArrayList < Entry< OperandKind, String > > operandsSuit = new ArrayList < Entry< OperandKind, String > > ();
 	private boolean specialCase = false;
 	
-	public OperandOption(String opcode) {
-		regAdditionalOpcode = -1;
-		this.opcode = opcode;
-	}
-	
-	public OperandOption(String opcode,String rmModifier ,OperandKind firstOperTP) {
-		regAdditionalOpcode = parseRmModifier(rmModifier);
-		this.opcode = opcode;	
-		operandsSuit.add(new SimpleEntry<OperandKind,String>(firstOperTP,null));
+	// option decoded from instruction table, name of operand is null unless it is special register
+	OperandOption(byte[] opcode,byte regAdditionalOpcode,
+				  ArrayList < OperandKind > kinds,ArrayList < String > specialNames) {
+		this.regAdditionalOpcode = regAdditionalOpcode;
+		StringBuilder hexOpcode = new StringBuilder();
+		for ( byte opcodeByte : opcode ) {
+			if ( hexOpcode.length() != 0 ) hexOpcode.append(' ');
+			hexOpcode.append(String.format("%02X",opcodeByte & 0xFF));
+		}
+		this.opcode = hexOpcode.toString();
+		opcodeLength = opcode.length;
+		for ( int i = 0; i < kinds.size(); i++ ) {
+			if ( specialNames.get(i) != null ) specialCase = true;
+			operandsSuit.add(new SimpleEntry<OperandKind,String>(kinds.get(i),specialNames.get(i)));
+		}
 	}
 	
-	public OperandOption(String opcode,String rmModifier ,
-						 OperandKind firstOperTP,OperandKind secondOperTP) {
-		regAdditionalOpcode = parseRmModifier(rmModifier);
-		this.opcode = opcode;
-		operandsSuit.add(new SimpleEntry<OperandKind,String>(firstOperTP,null));
-		operandsSuit.add( new SimpleEntry<OperandKind,String>(secondOperTP,null) );
+	public boolean operandsMatches(ArrayList < Operand > operands) {
+		return operandsMatches(operands,false);
 	}
 	
-	public OperandOption(String opcode,String rmModifier ,
-						 OperandKind firstOperTP,String specialName,
-						 OperandKind secondOperTP) {
-		specialCase = true;
-		regAdditionalOpcode = parseRmModifier(rmModifier);
-		this.opcode = opcode;
-		operandsSuit.add(new SimpleEntry<OperandKind,String>(firstOperTP,specialName));
-		operandsSuit.add( new SimpleEntry<OperandKind,String>(secondOperTP,null) );
+	// immediate also fits slot wider than itself, it is zero or sign extended while encoding
+	public boolean operandsFit(ArrayList < Operand > operands) {
+		return operandsMatches(operands,true);
 	}
 	
-	public boolean operandsMatches(ArrayList < Operand > operands) {
+	private boolean operandsMatches(ArrayList < Operand > operands,boolean widenImmediates) {
 		if ( operands.size() != operandsSuit.size() ) return false;
 		for (int i = 0; i < operands.size() ; i++ ) {
-			if ( operands.get(i).getOperandKind() != operandsSuit.get(i).getKey() || 
+			OperandKind kind = operands.get(i).getOperandKind();
+			OperandKind slot = operandsSuit.get(i).getKey();
+			boolean kindFits = kind == slot || widenImmediates && kind != null && kind.isImmediate() 
+												&& slot.isImmediate() && kind.getSize() <= slot.getSize();
+			if ( !kindFits || 
 					operandsSuit.get(i).getValue() != null && 
 					!operandsSuit.get(i).getValue().toLowerCase().equals(operands.get(i).getName().toLowerCase()) )
 				return false;
 		}
+		return isSignExtensionSafe(operands);
+	}
+	
+	// imm8 of word or dword operation is sign extended by processor, 
+	// so unsigned bytes above 7Fh would change their value
+	private boolean isSignExtensionSafe(ArrayList < Operand > operands) {
+		int operationSize = 0;
+		for ( Entry < OperandKind, String > slot : operandsSuit ) 
+			if ( !slot.getKey().isImmediate() ) operationSize = Math.max(operationSize,slot.getKey().getSize());
+		if ( operationSize <= 1 ) return true;
+		for ( int i = 0; i < operands.size(); i++ ) 
+			if ( operandsSuit.get(i).getKey() == OperandKind.imm8 && operands.get(i) instanceof AbsoluteExpr ) {
+				long value = ((AbsoluteExpr) operands.get(i)).value();
+				if ( value < Byte.MIN_VALUE || value > Byte.MAX_VALUE ) return false;
+			}
 		return true;
 	}
 	
-	private byte parseRmModifier(String rmModifier) {
-		if ( rmModifier.toLowerCase().equals("/r") )
-			return -1;
-		
-		if ( rmModifier.matches("/[0-7]") )
-			return (byte) Character.digit(rmModifier.charAt(1),10);
-		
-		System.err.println("ERROR : undefined rmModifer was provided into OperandOption constructor.");
-		System.exit(1);
-		return 0;
+	public OperandKind getOperandKind(int i) {
+		return operandsSuit.get(i).getKey();
 	}
 	
 	public boolean isAdditionalOpcodeInReg() {
@@ -76,6 +86,11 @@ public final class OperandOption {
 		return opcode;
 	}
 	
+	public int getOpcodeLength() {
+		return opcodeLength;
+	}
+
+	
 	public boolean isSpecialCase() {
 		return specialCase;
 	}
@@ -6,6 +6,7 @@ import java.util.TreeMap;
 
 import translator.table.initializers.*;
 import translator.table.tablecomponents.*;
+import translator.table.tablecomponents.userdefined.NamedConstant;
 
 public class SymbolTable {
    // new variant
@@ -41,6 +42,11 @@ public class SymbolTable {
     	}
     }
     
+    // symbolic constants are searched while lexing, so they are kept by lower case name
+    public void AddConstant( NamedConstant constant ) {
+    	table.put(constant.getName().toLowerCase(),constant);
+    }
+    
     public static boolean isReserved(String name) {
     	return predefined.containsKey(name);
     }
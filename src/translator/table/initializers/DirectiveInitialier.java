@@ -9,7 +9,7 @@ import translator.table.tablecomponents.reserved.Directive;
 public abstract class DirectiveInitialier {
 
 	public static void initialize(TreeMap<String, Atom> table) {
-        StringTokenizer directives = new StringTokenizer("end;segment;ends;db;dw;dd",";");
+        StringTokenizer directives = new StringTokenizer("end;segment;ends;db;dw;dd;macro;endm;local;include;if;ife;ifdef;ifndef;else;endif;equ;=;align;even",";");
         while ( directives.hasMoreTokens() ) {
         	String directive = directives.nextToken();
         	table.put(directive,new Directive(directive) );
@@ -0,0 +1,144 @@
+package translator.table.initializers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import translator.table.InstructionDatabase;
+import translator.table.OperandKind;
+
+// Compiles text table of instructions into binary one, read by InstructionDatabase.
+// Options of one mnemonic are kept together in order of text table.
+// InstructionDatabase compiles the text table itself when binary one doesn't match it.
+public class InstructionTableCompiler {
+	private final static String REG_IN_MODRM = "/r";
+
+	private LinkedHashMap < String, ArrayList < String[] > > mnemonics = new LinkedHashMap < String, ArrayList < String[] > > ();
+	private ArrayList < OperandKind > kinds = new ArrayList < OperandKind > ();
+
+	public static void main(String[] args) {
+		if ( args.length != 2 ) {
+			System.err.println("Usage : InstructionTableCompiler <text table> <binary table>");
+			System.exit(1);
+		}
+		try {
+			byte[] binary = compile(Files.readAllBytes(new File(args[0]).toPath()));
+			Files.write(new File(args[1]).toPath(),binary);
+		} catch (IOException | IllegalArgumentException e) {
+			System.err.println("Error : " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	public static byte[] compile(byte[] table) throws IOException {
+		InstructionTableCompiler compiler = new InstructionTableCompiler();
+		compiler.read(Arrays.asList(new String(table,StandardCharsets.ISO_8859_1).split("\\R")));
+		return compiler.write(InstructionDatabase.checksumOf(table));
+	}
+
+	// every line is split into mnemonic, opcode, reg field and operands
+	private void read(List < String > lines) {
+		for ( int i = 0; i < lines.size(); i++ ) {
+			String line = lines.get(i).replaceAll("#.*","").trim();
+			if ( line.isEmpty() ) continue;
+			String[] tokens = line.split("\\s+");
+			int regField = 1;
+			while ( regField < tokens.length && !tokens[regField].startsWith("/") )
+				regField++;
+			if ( regField == 1 || tokens.length > regField + 2 || tokens.length == regField + 1 )
+				throw new IllegalArgumentException("line " + (i + 1) + " is not an operand option.");
+
+			String[] option = new String[3];
+			StringBuilder opcode = new StringBuilder();
+			for ( int j = 1; j < regField; j++ )
+				opcode.append(tokens[j]).append(' ');
+			option[0] = opcode.toString().trim();
+			option[1] = ( regField < tokens.length )?(tokens[regField]):(REG_IN_MODRM);
+			option[2] = ( regField + 1 < tokens.length )?(tokens[regField + 1]):("");
+			checkOption(option,i + 1);
+
+			String mnemonic = tokens[0].toLowerCase();
+			if ( !mnemonics.containsKey(mnemonic) )
+				mnemonics.put(mnemonic,new ArrayList < String[] > ());
+			mnemonics.get(mnemonic).add(option);
+		}
+	}
+
+	private void checkOption(String[] option,int lineNumb) {
+		for ( String opcodeByte : option[0].split(" ") )
+			if ( !opcodeByte.matches("[0-9a-fA-F]{2}") )
+				throw new IllegalArgumentException("line " + lineNumb + " has bad opcode byte " + opcodeByte + ".");
+		if ( !option[1].equalsIgnoreCase(REG_IN_MODRM) && !option[1].matches("/[0-7]") )
+			throw new IllegalArgumentException("line " + lineNumb + " has bad reg field " + option[1] + ".");
+		for ( String operand : operandsOf(option) ) {
+			try {
+				kindIndex(OperandKind.valueOf(operand.split("=")[0]));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("line " + lineNumb + " has unknown operand kind " + operand + ".");
+			}
+		}
+	}
+
+	private static String[] operandsOf(String[] option) {
+		return ( option[2].isEmpty() )?(new String[0]):(option[2].split(","));
+	}
+
+	private int kindIndex(OperandKind kind) {
+		if ( !kinds.contains(kind) ) kinds.add(kind);
+		return kinds.indexOf(kind);
+	}
+
+	// options are written first, so offsets of mnemonics are known when directory is written
+	private byte[] write(int checksum) throws IOException {
+		ByteArrayOutputStream optionsBytes = new ByteArrayOutputStream();
+		DataOutputStream options = new DataOutputStream(optionsBytes);
+		ArrayList < Integer > offsets = new ArrayList < Integer > ();
+		ArrayList < Integer > operandNumbs = new ArrayList < Integer > ();
+		for ( ArrayList < String[] > suit : mnemonics.values() ) {
+			offsets.add(options.size());
+			operandNumbs.add(operandsOf(suit.get(0)).length);
+			options.writeByte(suit.size());
+			for ( String[] option : suit ) {
+				String[] opcode = option[0].split(" ");
+				options.writeByte(opcode.length);
+				for ( String opcodeByte : opcode )
+					options.writeByte(Integer.parseInt(opcodeByte,16));
+				options.writeByte( (option[1].equalsIgnoreCase(REG_IN_MODRM))?(-1):(Character.digit(option[1].charAt(1),10)) );
+				String[] operands = operandsOf(option);
+				options.writeByte(operands.length);
+				for ( String operand : operands ) {
+					String[] kindAndName = operand.split("=");
+					options.writeByte(kindIndex(OperandKind.valueOf(kindAndName[0])));
+					options.writeUTF( (kindAndName.length > 1)?(kindAndName[1].toLowerCase()):("") );
+				}
+			}
+		}
+
+		ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		try ( DataOutputStream out = new DataOutputStream(binary) ) {
+			out.writeInt(InstructionDatabase.MAGIC);
+			out.writeInt(checksum);
+			out.writeByte(kinds.size());
+			for ( OperandKind kind : kinds )
+				out.writeUTF(kind.name());
+			out.writeShort(mnemonics.size());
+			int i = 0;
+			for ( String mnemonic : mnemonics.keySet() ) {
+				out.writeUTF(mnemonic);
+				out.writeByte(operandNumbs.get(i));
+				out.writeInt(offsets.get(i));
+				i++;
+			}
+			out.writeInt(optionsBytes.size());
+			optionsBytes.writeTo(out);
+		}
+		return binary.toByteArray();
+	}
+}
@@ -4,19 +4,35 @@ package translator.table.tablecomponents;
 import java.util.ArrayList;
 import java.util.Collection;
 
+// Type and position atom are final fields, not overridden methods, so calls 
+// of getType() in hot loops stay monomorphic whatever atoms a line holds.
 public abstract class Atom {
-    private String name;
+    private final String name;
+    private final AtomType type;
+    private final Atom posAtom;		// atom which is searched in source line to find position of this one
     
-    public abstract AtomType getType();
+    public Atom(String name,AtomType type) {
+        this.name = name.toLowerCase();
+        this.type = type;
+        this.posAtom = this;
+    }
     
-    public abstract Atom searchedPosAtom() ;
+    protected Atom(String name,AtomType type,Atom posAtom) {
+        this.name = name.toLowerCase();
+        this.type = type;
+        this.posAtom = posAtom;
+    }
     
-    public String getName() {
-        return name;
+    public final AtomType getType() {
+        return type;
     }
     
-    public Atom(String name) {
-        this.name = name.toLowerCase();
+    public final Atom searchedPosAtom() {
+        return posAtom;
+    }
+    
+    public String getName() {
+        return name;
     }
     
     @SuppressWarnings("unchecked")
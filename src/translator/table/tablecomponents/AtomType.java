@@ -17,5 +17,6 @@ public enum AtomType {
     AbsExpr,
     Memory, 
     RegOperand,
-    RelativeOperand
+    RelativeOperand,
+    DupExpr
 }
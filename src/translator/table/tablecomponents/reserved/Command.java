@@ -4,29 +4,32 @@ package translator.table.tablecomponents.reserved;
 import java.util.ArrayList;
 
 import translator.table.CommandSuit;
+import translator.table.InstructionDatabase;
 import translator.table.OperandOption;
-import translator.table.tablecomponents.Atom;
 import translator.table.tablecomponents.AtomType;
 import translator.termworks.syntax.operands.Operand;
 
 public class Command extends Mnemocode {
 //    public enum OperandKind { reg,mem,imm }
  //   private int commandNumb = 0;
-    private int operandNumb = 0;
-    private CommandSuit suit;
+    private final int operandNumb;
+    private final InstructionDatabase database;
+    private final int databaseIndex;
+    private volatile CommandSuit suit;		// decoded from database when command is used first time
 //    private Set<OperandKind> firstOperandKinds = null;
 //    private Set<OperandKind> secondOperandKinds = null;
 //    private Atom firstOper = null;
 //    private Atom secondOper = null;
     
     
-    public synchronized int getOperandNumb() {
+    public int getOperandNumb() {
 		return operandNumb;
 	}
 
-	public Command(String _name,int operandNumb,CommandSuit suit) {
-        super(_name.toLowerCase());
-        this.suit = suit;
+	public Command(String _name,int operandNumb,InstructionDatabase database,int databaseIndex) {
+        super(_name.toLowerCase(),AtomType.Command);
+        this.database = database;
+        this.databaseIndex = databaseIndex;
         if ( operandNumb < 0) {
         	System.err.println("Number of operands in command should not be negative.");
         	System.exit(1);
@@ -38,30 +41,34 @@ public class Command extends Mnemocode {
    //     return commandNumb;
    // }
     
-    @Override
-    public AtomType getType() {
-        return AtomType.Command;
-    }
-    
     public String toString() {
     	return "Command";
     }
 
-	@Override
-	public Atom searchedPosAtom() {
-		return this;
+	// decoding twice by concurrent threads gives equal suits, so no lock is taken
+	private CommandSuit suit() {
+		CommandSuit decoded = suit;
+		if ( decoded == null ) {
+			decoded = database.decodeSuit(databaseIndex);
+			suit = decoded;
+		}
+		return decoded;
 	}
-	
+
 	public OperandOption getOptionForOperands(ArrayList< Operand > operands) {
-		return suit.getOptionForOperands(operands);
+		return suit().getOptionForOperands(operands);
+	}
+	
+	public ArrayList < OperandOption > getFittingOptions(ArrayList< Operand > operands) {
+		return suit().getFittingOptions(operands);
 	}
 	
 	public String getOpCodeForOperands(ArrayList< Operand > operands) {
-		return suit.getOptionForOperands(operands).getOpcode();
+		return suit().getOptionForOperands(operands).getOpcode();
 	}
 
 	public boolean isOperandsCombinationAllowed(ArrayList<Operand> operands) {
-		return suit.isOperandsComninationAllowed(operands);
+		return suit().isOperandsComninationAllowed(operands);
 	}
 	
 }
\ No newline at end of file
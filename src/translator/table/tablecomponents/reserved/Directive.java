@@ -1,26 +1,16 @@
 
 package translator.table.tablecomponents.reserved;
 
-import translator.table.tablecomponents.Atom;
 import translator.table.tablecomponents.AtomType;
 
 public class Directive extends Mnemocode {
     
     public Directive(String _name) {
-        super(_name);
-    }
-
-    @Override
-    public AtomType getType() {
-        return AtomType.Directive;
+        super(_name,AtomType.Directive);
     }
 
     public String toString() {
     	return "Directive";
     }
     
-    @Override
-	public Atom searchedPosAtom() {
-		return this;
-	}
 }
\ No newline at end of file
@@ -1,11 +1,12 @@
 package translator.table.tablecomponents.reserved;
 
 import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
 
 public abstract class Mnemocode extends Atom {
 
-	public Mnemocode(String name) {
-		super(name);
+	public Mnemocode(String name,AtomType type) {
+		super(name,type);
 	}
 
 }
@@ -25,7 +25,7 @@ public class Register extends Atom {
     
     private Register(String name, int bitSize, int regNumb, String pre, RegUsage regType)
     			throws IncorrectBitSize {
-		super(name);
+		super(name,AtomType.Register);
 		 if (!CheckBitSize(bitSize)) throw new IncorrectBitSize();
 		this.bitSize = (byte) bitSize;
 		this.regNumb = regNumb;
@@ -45,11 +45,6 @@ public class Register extends Atom {
     	return regNumb;
     }
     
-    @Override
-    public AtomType getType() {
-        return AtomType.Register;
-    }   
-    
     public static boolean CheckBitSize(int size) {
         if (size == 8 | size == 16 | size == 32 | size == 80)
             return true;
@@ -66,11 +61,6 @@ public class Register extends Atom {
     		return "Register" + " " + bitSize;
     }
     
-    @Override
-	public Atom searchedPosAtom() {
-		return this;
-	}
-
 	public String getReplacementByte() {
 		return pre;
 	}
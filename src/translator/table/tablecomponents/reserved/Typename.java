@@ -10,7 +10,7 @@ public class Typename extends Atom {
 	private int size;
 	
 	public Typename(String name,int size) {
-		super(name);
+		super(name,AtomType.Typename);
 		this.size = size;
 	}
 
@@ -28,19 +28,9 @@ public class Typename extends Atom {
 		return null;
 	}
 	
-	@Override
-	public AtomType getType() {
-		return AtomType.Typename;
-	}
-	
 	@Override
 	public String toString() {
 		return "Typename " + size;
 	}
 
-	@Override
-	public Atom searchedPosAtom() {
-		return this;
-	}
-
 }
@@ -1,42 +1,38 @@
 package translator.table.tablecomponents.reserved.operators;
 
-import translator.exc.PriorityException;
 import translator.table.tablecomponents.Atom;
 import translator.table.tablecomponents.AtomType;
-import translator.termworks.syntax.operands.Operand;
 
-interface Calculable {
-	int MIN_PRIORITY = 13;
-	int MAX_PRIORITY = 1;
-	public Operand eval( Operand op1);
-    public Operand eval( Operand op1,Operand op2 ) ;
-}
+public final class Operator extends Atom {
+
+	private final OperatorDescriptor descriptor;
 
-public abstract class Operator extends Atom implements Calculable {
+	public Operator(OperatorDescriptor descriptor) {
+		super(descriptor.getName(),AtomType.Operator);
+		this.descriptor = descriptor;
+	}
 
-	private String opDescription;
-	private int priority;
-		
-	public Operator(String name,String opDescription,int pr) throws PriorityException {
-		super(name);
-		if ( pr > MIN_PRIORITY || pr < MAX_PRIORITY) throw new PriorityException();
-		this.priority = pr;
-		this.opDescription = opDescription;
+	public OperatorDescriptor getDescriptor() {
+		return descriptor;
 	}
-	
+
 	public int getPriority() {
-		return priority;
+		return descriptor.getPriority();
 	}
 
 	public String toString() {
-		return opDescription;
+		return descriptor.getDescription();
 	}
 
-	@Override
-	public AtomType getType() {
-		return AtomType.Operator;
+	public boolean isUnary() {
+		return descriptor.isUnary();
 	}
 
-	public abstract boolean isUnary();
-	public abstract boolean isBinary();
-}
\ No newline at end of file
+	public boolean isBinary() {
+		return !descriptor.isUnary();
+	}
+
+	public long eval(long left,long right) {
+		return descriptor.eval(left,right);
+	}
+}
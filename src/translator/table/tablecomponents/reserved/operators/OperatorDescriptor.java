@@ -0,0 +1,67 @@
+package translator.table.tablecomponents.reserved.operators;
+
+// Table of all operators. Evaluation is one switch on primitive values,
+// so the whole table is a single class, loaded once with symbol table.
+// Priority 1 binds tightest, 13 loosest.
+public enum OperatorDescriptor {
+	ADDR_CLOSE("]","Addres operator close parentheses.",1,true),
+	ADDR_OPEN("[","Addres operator open parentheses",1,true),
+	OPEN("(","",1,true),
+	CLOSE(")","",1,true),
+	SEG_OVERRIDE(":","Segment override operator",3,false),
+	PTR("ptr","Pointer operator.",4,false),
+	PLUS("u+","",1,true),
+	MINUS("u-","",5,true),
+	MUL("*","Multiply operator.",7,false),
+	DIV("/","Integer division operator.",7,false),
+	MOD("mod","Modulo operator.",7,false),
+	ADD("+","Sum operator.",8,false),
+	SUB("-","Subtraction operator.",8,false),
+	DUP("dup","Duplication operator.",13,false);		// data of duplication isn't evaluated, it is kept as DupOperand
+
+	public final static int MIN_PRIORITY = 13;
+	public final static int MAX_PRIORITY = 1;
+
+	private final String name;
+	private final String description;
+	private final int priority;
+	private final boolean unary;
+
+	OperatorDescriptor(String name,String description,int priority,boolean unary) {
+		this.name = name;
+		this.description = description;
+		this.priority = priority;
+		this.unary = unary;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public int getPriority() {
+		return priority;
+	}
+
+	public boolean isUnary() {
+		return unary;
+	}
+
+	// left is ignored by unary operators
+	public long eval(long left,long right) {
+		switch ( this ) {
+			case PLUS:	return right;
+			case MINUS:	return -right;
+			case MUL:	return left * right;
+			case DIV:	return left / right;
+			case MOD:	return left % right;
+			case ADD:	return left + right;
+			case SUB:	return left - right;
+			default:
+				throw new IllegalStateException("Operator " + name + " can't be evaluated.");
+		}
+	}
+}
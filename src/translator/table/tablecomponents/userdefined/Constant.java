@@ -18,13 +18,19 @@ public class Constant extends Atom {
 	public final static Pattern constantPattern = Pattern.compile("^" + constantRegex + "$");;
     	
     public Constant(long val,int radix) {
-        super(Long.toString(val,radix));
+        super(Long.toString(val,radix),AtomType.Constant);
         this.value = val;
         rd = radix;
     }
     
+    protected Constant(String strRepresentation,long val,int radix) {
+    	super(strRepresentation,AtomType.Constant);
+    	value = val;
+    	rd = radix;
+    }
+    
     public Constant(String strRepresentation) throws BadConstant {
-    	super(strRepresentation);
+    	super(strRepresentation,AtomType.Constant);
     	value = ConstantValue(strRepresentation);
     	rd = getConstantRadix(strRepresentation);
     }
@@ -41,11 +47,6 @@ public class Constant extends Atom {
     	return getName();
     }
 
-    @Override
-    public AtomType getType() {
-        return AtomType.Constant;
-    }
-	
     public static boolean isConstant(String token) {
     	return token.matches(constantPattern.pattern());
     }
@@ -75,9 +76,4 @@ public class Constant extends Atom {
     	return "Constant with radix " + rd; 
     }
     
-    @Override
-	public Atom searchedPosAtom() {
-		return this;
-	}
-    
 }
\ No newline at end of file
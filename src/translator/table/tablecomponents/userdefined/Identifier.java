@@ -23,7 +23,11 @@ public class Identifier extends Atom {
 	}
 
     public Identifier(String _name) {
-        super(_name);
+        this(_name,AtomType.Identifier);
+    }
+    
+    protected Identifier(String _name,AtomType type) {
+        super(_name,type);
         offset = - 1;
         isUsed = false;
     }
@@ -43,10 +47,6 @@ public class Identifier extends Atom {
 	public void setOffset(int offset) {
 		this.offset = offset;
 	}
-    @Override
-    public AtomType getType() {
-        return AtomType.Identifier;
-    }
     
     public String toString() {
     	return "Identifier";
@@ -56,11 +56,6 @@ public class Identifier extends Atom {
     	return "no type";
     }
 
-    @Override
-	public Atom searchedPosAtom() {
-		return this;
-	}
-
 	public ParsedLine getLineWhereDefined() {
 		return whereDef;
 	}
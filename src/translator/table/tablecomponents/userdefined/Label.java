@@ -15,20 +15,16 @@ public class Label extends Identifier {
 	public final static Pattern labelPattern = Pattern.compile(labelRegex);
 		
     public Label(String _name,LabelType type) {
-        super(_name);
+        super(_name,AtomType.Label);
         this.setLabelType(type);
     }
 	
     public Label(String _name,LabelType type, ParsedLine lineWhereDef) {
-        super(_name);
+        super(_name,AtomType.Label);
         whereDef = lineWhereDef;
         this.setLabelType(type);
     }
         
-	@Override
-    public AtomType getType() {
-        return AtomType.Label;
-    }
     
     
     public String toString() {
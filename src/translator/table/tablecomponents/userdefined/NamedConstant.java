@@ -0,0 +1,21 @@
+package translator.table.tablecomponents.userdefined;
+
+// Symbolic constant defined by EQU or '='. Its value is evaluated once, 
+// when it is defined, every use is lexed directly into this constant.
+public class NamedConstant extends Constant {
+	private boolean redefinable;		// '=' can be redefined, EQU can't
+	
+	public NamedConstant(String name,long value,boolean redefinable) {
+		super(name,value,16);
+		this.redefinable = redefinable;
+	}
+	
+	public boolean isRedefinable() {
+		return redefinable;
+	}
+	
+	public String toString() {
+		return "Symbolic constant " + Long.toHexString(GetVaue()).toUpperCase() + "h";
+	}
+	
+}
@@ -7,13 +7,13 @@ import translator.table.tablecomponents.AtomType;
 
 public class Segment extends Identifier {
 	public enum SegmentType { bit16 , bit32 }; 
-	private SegmentType segType;	
+	private final SegmentType segType;
 	private int byteSize;
 	private ArrayList < Variable > vars;
 	private ArrayList < Label > labels;
 		
 	public Segment(String _name,SegmentType type) {
-		super(_name);
+		super(_name,AtomType.Segment);
 		segType = type;
 		byteSize= 0;
 		vars = new ArrayList < Variable > ();
@@ -21,24 +21,15 @@ public class Segment extends Identifier {
 		usageFound();
 	}
 
-	@Override
-	public AtomType getType() {
-		return AtomType.Segment;
-	}
-	
 	public int byteSize() {
 		return byteSize;
 	}
 		
-	public void defVariable(Variable var) {
-		vars.add(var);
-		var.setOffset(byteSize);
-		byteSize += var.Size();
-	}
-	
-	public void defLabel(Label lab) {
-		lab.setOffset(byteSize); 
-		labels.add(lab);
+	// offsets are already assigned to the symbols
+	public void defSymbols(ArrayList < Variable > vars,ArrayList < Label > labels,int byteSize) {
+		this.vars = vars;
+		this.labels = labels;
+		this.byteSize = byteSize;
 	}
 	
 	public ArrayList < Identifier > getDefSymbols() {
@@ -51,8 +42,12 @@ public class Segment extends Identifier {
 	public SegmentType getSegmentType() {
 		return segType;
 	}
+	
+	public int getOffsetSize() {
+		return (segType == SegmentType.bit16)?(2):(4);
+	}
 
-	public synchronized int getByteSize() {
+	public int getByteSize() {
 		return byteSize;
 	}
 	
@@ -0,0 +1,37 @@
+package translator.table.tablecomponents.userdefined;
+
+// String literal in quotes. As a value it is packed from its characters,
+// first character is the most significant byte, so 'ab' is 6162h.
+public class StringConstant extends Constant {
+	private String chars;
+	
+	public StringConstant(String literal) {
+		super(literal,packChars(literal.substring(1,literal.length() - 1)),16);
+		chars = literal.substring(1,literal.length() - 1);
+	}
+	
+	public String getChars() {
+		return chars;
+	}
+	
+	public int length() {
+		return chars.length();
+	}
+	
+	private static long packChars(String chars) {
+		long value = 0;
+		for ( int i = 0; i < chars.length(); i++ ) 
+			value = (value << 8) | (chars.charAt(i) & 0xFF);
+		return value;
+	}
+	
+	@Override
+	public int getSizeInBytes() {
+		return Math.max(1,chars.length());
+	}
+	
+	public String toString() {
+		return "String constant";
+	}
+	
+}
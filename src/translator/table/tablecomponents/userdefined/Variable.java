@@ -6,14 +6,15 @@ import translator.table.tablecomponents.reserved.Directive;
 public class Variable extends Identifier {
     public enum DataType { BYTE,WORD,DWORD }
     private DataType type;
+    private long length = 1;		// number of elements of type
 	
 	public Variable(Identifier ident, DataType type) {
-		super( ident.getName() );
+		super( ident.getName(),AtomType.Variable );
 		this.type = type;
 	}
 	
 	public Variable(String name,DataType type) {
-		super( name );
+		super( name,AtomType.Variable );
 		this.type = type;
 	}
 		
@@ -49,6 +50,19 @@ public class Variable extends Identifier {
         return GetSize(this);
     }
     
+    public long getLength() {
+    	return length;
+    }
+    
+    public void setLength(long length) {
+    	this.length = length;
+    }
+    
+    // bytes taken in segment by all elements, it can be more than segment holds
+    public long byteLength() {
+    	return length * Size();
+    }
+    
     public String toString() {
     	return "Variable";
     } 
@@ -58,9 +72,4 @@ public class Variable extends Identifier {
     	return type.toString();
     }
     
-    @Override
-    public AtomType getType() {
-        return AtomType.Variable;
-    }
-    
 }
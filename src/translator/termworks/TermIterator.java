@@ -3,12 +3,15 @@ package translator.termworks;
 import java.util.ArrayList;
 
 import translator.Printable;
+import translator.Translator;
+import translator.errorhandling.CancellationToken;
 import translator.lexer.ParsedLine;
 import translator.table.tablecomponents.AtomType;
 import translator.table.tablecomponents.userdefined.Identifier;
 
 public abstract class TermIterator extends Printable {
 	public ParsedLine matchedLine;
+	protected CancellationToken cancellation = Translator.errTab.getCancellationToken();
 	
 
 // Regular expressions
@@ -42,8 +45,14 @@ public abstract class TermIterator extends Printable {
 	
 	
 	protected void iterateOverTerm(ArrayList < ParsedLine > term) {
+		int linesDone = 0;
 		try {
 			for ( ParsedLine  line : term  ) {
+				if ( cancellation.isCancelled() ) {
+					cancellation.linesSkipped(term.size() - linesDone);
+					break;
+				}
+				linesDone++;
 				matchedLine = line;
 				beforeStartMatching();
 				
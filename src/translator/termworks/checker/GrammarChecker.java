@@ -10,12 +10,14 @@ import translator.errorhandling.*;
 import translator.exc.*;
 import translator.lexer.ParsedLine;
 import translator.termworks.TermIterator;
+import translator.termworks.layout.Alignment;
 import translator.termworks.syntax.operands.*;
 import translator.table.SymbolTable;
 import translator.table.tablecomponents.*;
 import translator.table.tablecomponents.reserved.Command;
 import translator.table.tablecomponents.userdefined.Identifier;
 import translator.table.tablecomponents.userdefined.Label;
+import translator.table.tablecomponents.userdefined.NamedConstant;
 import translator.table.tablecomponents.userdefined.Segment;
 import translator.table.tablecomponents.userdefined.Variable;
 
@@ -35,7 +37,8 @@ public class GrammarChecker extends TermIterator {
 	public void check(ArrayList < ParsedLine > term, AvailableChecks appliedChecks) {
 		selectChecker(appliedChecks);
 		iterateOverTerm(term);
-		checker.finalChecks(term);
+		if ( !cancellation.isCancelled() ) 
+			checker.finalChecks(term);
 	}
 		
 	private void selectChecker(AvailableChecks appliedChecks) {
@@ -122,6 +125,11 @@ public class GrammarChecker extends TermIterator {
 				return;
 			}
 			
+			if ( isConstantName(curLabel) ) {
+				reporter.reportNameIsConstant(matchedLine);
+				return;
+			}
+			
 			if (  checkIfDef(curLabel) )
 				if ( userDefinedNames.get(curLabel.getName().toLowerCase()) == AtomType.Label  ) 
 					reporter.reportAlreadyDefLabel(matchedLine);
@@ -178,6 +186,11 @@ public class GrammarChecker extends TermIterator {
 				return;
 			}
 
+			if ( Alignment.isAlignLine(matchedLine) ) {
+				alignDirectiveErrorsCheck();
+				return;
+			}
+
 			if ( matchedLine.strMatches("^\\s*end.*$") ) {
 				 endDirectiveErrorsCheck();
 				 return;
@@ -210,32 +223,32 @@ public class GrammarChecker extends TermIterator {
 
 		private void defDirectiveErrorsCheck() {
 			Variable defVariable = (Variable) matchedLine.getAtomAt(0);
-			ArrayList < Atom > initVals = matchedLine.subArray(2);
-			Operand initVal;
+			ArrayList < Operand > initVals = new ArrayList < Operand > ();
+			Atom.castCopy(initVals,matchedLine.subArray(2));
 
 			if ( curCheckSeg == null) {
 				reporter.reportNotInsideSegmentDef(matchedLine);
 				return;
 			}
 			
-			if ( initVals.size() != 1) {
+			if ( initVals.isEmpty() ) {
 				reporter.reportWrongOperandNumbInDirective(matchedLine);
 				return;
 			}
 			
-			initVal = (Operand) initVals.get(0);
-			
-			if (  !(initVal instanceof AbsoluteExpr) )  {
-				reporter.reportOnlyAbsExprAllowed(matchedLine);
-				return;
-			}
-			
-			if ( !AbsoluteExprCheck((AbsoluteExpr) initVal) ) {
-				return;
+			for ( int i = 0; i < initVals.size(); i++ ) {
+				if ( initVals.get(i).isMissing() ) {
+					reporter.reportMissingOperand(matchedLine,i + 1);
+					return;
+				}
+				if ( !initializerCheck(defVariable,initVals.get(i)) ) 
+					return;
 			}
 			
-			if ( defVariable.Size() < initVal.calcSizeInBytes() ) {
-				reporter.reportInitConstantTooBig(matchedLine);
+			try {
+				Math.multiplyExact(DupOperand.elementsNumb(initVals,defVariable.Size()),defVariable.Size());
+			} catch (ArithmeticException e) {
+				reporter.reportDupCountOverflow(matchedLine);
 				return;
 			}
 			
@@ -251,13 +264,89 @@ public class GrammarChecker extends TermIterator {
 				reporter.reportReservedNameConflicts(matchedLine);
 				return;
 			}
+			
+			if ( isConstantName(defVariable) ) {
+				reporter.reportNameIsConstant(matchedLine);
+				return;
+			}
 			userDefinedNames.put(defVariable.getName().toLowerCase(),AtomType.Variable);	
 		}
 		
+		// duplicated initializers are checked as well as duplication count
+		private boolean initializerCheck(Variable defVariable,Operand initVal) {
+			if ( initVal instanceof DupOperand ) {
+				DupOperand dup = (DupOperand) initVal;
+				if ( !AbsoluteExprCheck(dup.getCount()) ) 
+					return false;
+				if ( dup.countValue() <= 0 ) {
+					reporter.reportDupCountNotPositive(matchedLine);
+					return false;
+				}
+				for ( Operand inner : dup.getInitializer() ) 
+					if ( !initializerCheck(defVariable,inner) ) 
+						return false;
+				return true;
+			}
+			
+			if (  !(initVal instanceof AbsoluteExpr) )  {
+				reporter.reportOnlyAbsExprAllowed(matchedLine);
+				return false;
+			}
+			
+			if ( !AbsoluteExprCheck((AbsoluteExpr) initVal) ) {
+				return false;
+			}
+			
+			if ( !((AbsoluteExpr) initVal).isCharSequence(defVariable.Size()) 
+					&& defVariable.Size() < initVal.calcSizeInBytes() ) {
+				reporter.reportInitConstantTooBig(matchedLine);
+				return false;
+			}
+			return true;
+		}
+		
+		// EVEN has no operand, ALIGN has one absolute power of two
+		private void alignDirectiveErrorsCheck() {
+			ArrayList < Operand > operands = new ArrayList < Operand > ();
+			Atom.castCopy(operands,matchedLine.subArray(1));
+			
+			if ( curCheckSeg == null ) {
+				reporter.reportNotInsideSegmentDef(matchedLine);
+				return;
+			}
+			
+			if ( Alignment.isEven(matchedLine) ) {
+				if ( !operands.isEmpty() ) 
+					reporter.reportWrongOperandNumbInDirective(matchedLine);
+				return;
+			}
+			
+			if ( operands.isEmpty() ) {
+				reporter.reportMissingOperand(matchedLine,-1);
+				return;
+			}
+			if ( operands.size() != 1 ) {
+				reporter.reportWrongOperandNumbInDirective(matchedLine);
+				return;
+			}
+			if ( !(operands.get(0) instanceof AbsoluteExpr) ) {
+				reporter.reportAlignNotPowerOfTwo(matchedLine);
+				return;
+			}
+			if ( AbsoluteExprCheck((AbsoluteExpr) operands.get(0)) 
+					&& !Alignment.isValidBoundary(((AbsoluteExpr) operands.get(0)).value()) ) 
+				reporter.reportAlignNotPowerOfTwo(matchedLine);
+		}
+		
 		private boolean checkIfDef(Atom atom) {
 			return userDefinedNames.get(atom.getName().toLowerCase()) != null;
 		}
 		
+		// constants are defined by lexer, before or after the line, and their name is lexed into value everywhere
+		private boolean isConstantName(Atom atom) {
+			return symTab.Search(atom.getName()) instanceof NamedConstant;
+		}
+		
 
 		private void endDirectiveErrorsCheck() {
 			isEndProcessed = true;
@@ -19,30 +19,56 @@ public class CommandListingGenerator {
 	private OperandOption curOption; 
 	
 	private MemoryOperand mem = null;
+	private int encodedLength = 0;
 	
 	public CommandListingGenerator() {
 		operands = new ArrayList < Operand > ();
 	}
 	
 	public String generate(ParsedLine line,ListingGenerator.SegmentInfo segInf ) {
+		return segInf.offsetToString() + " " + encode(line,segInf);
+	}
+	
+	public int getEncodedLength() {
+		return encodedLength;
+	}
+	
+	// clocks of the last generated command
+	public InstructionTimer.Clocks getClocks(TimingModel model) {
+		return InstructionTimer.clocksOf(model,cmd,curOption,operands);
+	}
+	
+	private String encode(ParsedLine line,ListingGenerator.SegmentInfo segInf ) {
 		preprocessing(line,segInf);
 		StringBuffer genCommand = new StringBuffer("");
-		genCommand.append( segInf.offsetToString() + " " );
 		genCommand.append( genPrefix() );
 		genCommand.append( genOpCode() );
 		genCommand.append( genModRM() );
 		genCommand.append( genSib());
 		genCommand.append( genOffset() );
 		genCommand.append( genAbsoluteOper() );
+		genCommand.append( genRelative(countEncodedBytes(genCommand.toString())) );
+		encodedLength = countEncodedBytes(genCommand.toString());
 		return genCommand.toString();
 	}
+	
+	public static int countEncodedBytes(String encoded) {
+		int bytes = 0;
+		for ( String token : encoded.trim().split("\\s+") ) {
+			if ( token.length() == 0 || token.equals("R") ) continue;
+			if ( token.endsWith(":") || token.endsWith("|") ) 
+				token = token.substring(0,token.length() - 1);
+			bytes += token.length() / 2;
+		}
+		return bytes;
+	}
 
 	private void preprocessing(ParsedLine line, SegmentInfo segInf) {
 		curSeg = segInf;
 		int cmdIndx = line.firstIndexOf(AtomType.Command);
 		cmd = (Command) line.getAtomAt( cmdIndx );
 		Atom.castCopy(operands, line.subArray(cmdIndx + 1));
-		curOption = cmd.getOptionForOperands(operands);		
+		curOption = InstructionSizer.selectOption(cmd,operands,segInf.size());
 		mem = null;
 		maxOperandSize = 0;
 		
@@ -83,7 +109,7 @@ public class CommandListingGenerator {
 	}
 
 	private String genModRM() {
-		if ( !curOption.isSpecialCase() && operands.size() != 0) 
+		if ( !curOption.isSpecialCase() && operands.size() != 0 && findRelative() == null ) 
 			return genByte(getModFromOperands(),getRegFromOperands(),getRmFromOperands()) + " ";
 		return "";
 	}
@@ -147,12 +173,27 @@ public class CommandListingGenerator {
 	}
 
 	private String genAbsoluteOper() {
-		for ( Operand atom : operands ) {
-			if ( atom instanceof AbsoluteExpr ) {
-				return ListingGenerator.genHexFromOperand(atom, ((AbsoluteExpr) atom).calcSizeInBytes() ) + " ";
+		for ( int i = 0; i < operands.size(); i++ ) {
+			if ( operands.get(i) instanceof AbsoluteExpr ) {
+				return ListingGenerator.genHexFromOperand(operands.get(i), curOption.getOperandKind(i).getSize() ) + " ";
 			}
 		}
 		return "";
 	}
 	
+	private String genRelative(int bytesBefore) {
+		Relative rel = findRelative();
+		if ( rel == null ) return "";
+		int nextInstruction = curSeg.offset() + bytesBefore + rel.calcSizeInBytes();
+		return ListingGenerator.buildDefaultHexRep(rel.getTarget().getOffset() - nextInstruction, 
+												   rel.calcSizeInBytes()) + " ";
+	}
+	
+	private Relative findRelative() {
+		for ( Operand operand : operands ) 
+			if ( operand instanceof Relative ) 
+				return (Relative) operand;
+		return null;
+	}
+	
 }
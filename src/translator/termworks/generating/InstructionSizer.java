@@ -0,0 +1,92 @@
+package translator.termworks.generating;
+
+import java.util.ArrayList;
+
+import translator.Translator;
+import translator.lexer.ParsedLine;
+import translator.table.OperandOption;
+import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
+import translator.table.tablecomponents.reserved.Command;
+import translator.termworks.syntax.operands.*;
+
+// Length of the instruction which CommandListingGenerator would emit,
+// found from the selected OperandOption and operand kinds without encoding.
+public abstract class InstructionSizer {
+
+	public static int sizeOf(ParsedLine line,int segSize) {
+		int cmdIndx = line.firstIndexOf(AtomType.Command);
+		ArrayList < Operand > operands = new ArrayList < Operand > ();
+		Atom.castCopy(operands,line.subArray(cmdIndx + 1));
+		for ( Operand operand : operands ) 
+			if ( operand instanceof UndefinedOperand || operand.getOperandKind() == null ) 
+				return 0;
+
+		OperandOption option = selectOption((Command) line.getAtomAt(cmdIndx),operands,segSize);
+		if ( option == null ) return 0;
+		return sizeOf(option,operands,segSize);
+	}
+	
+	// option which is encoded, sizing and encoding must agree on it
+	public static OperandOption selectOption(Command cmd,ArrayList < Operand > operands,int segSize) {
+		if ( Translator.flags.isOptimizeSize() ) 
+			return shortestOption(cmd,operands,segSize);
+		return cmd.getOptionForOperands(operands);
+	}
+	
+	// option chosen by table order is kept unless some other one is strictly shorter
+	public static OperandOption shortestOption(Command cmd,ArrayList < Operand > operands,int segSize) {
+		OperandOption shortest = cmd.getOptionForOperands(operands);
+		if ( shortest == null ) return null;
+		int shortestSize = sizeOf(shortest,operands,segSize);
+		for ( OperandOption option : cmd.getFittingOptions(operands) ) {
+			int size = sizeOf(option,operands,segSize);
+			if ( size < shortestSize ) {
+				shortest = option;
+				shortestSize = size;
+			}
+		}
+		return shortest;
+	}
+	
+	public static int sizeOf(OperandOption option,ArrayList < Operand > operands,int segSize) {
+		MemoryOperand mem = null;
+		Relative rel = null;
+		AbsoluteExpr imm = null;
+		int maxOperandSize = 0;
+		int size = option.getOpcodeLength();
+		
+		for ( Operand operand : operands ) {
+			if ( operand.getOperandKind().getSize() > maxOperandSize ) maxOperandSize = operand.getOperandKind().getSize();
+			if ( operand instanceof MemoryOperand ) {
+				mem = (MemoryOperand) operand;
+				break;
+			}
+		}
+		
+		for ( int i = 0; i < operands.size(); i++ ) {
+			Operand operand = operands.get(i);
+			if ( operand instanceof Relative ) {
+				rel = (Relative) operand;
+				size += rel.calcSizeInBytes();
+			}
+			if ( operand instanceof AbsoluteExpr && imm == null ) {
+				imm = (AbsoluteExpr) operand;
+				size += option.getOperandKind(i).getSize();		// immediate is widened to its slot
+			}
+		}
+		
+	// prefixes
+		if ( mem != null && mem.isRegReplacement() ) size++;
+		if ( maxOperandSize > 1 && maxOperandSize != segSize ) size++;
+		if ( mem != null && mem.getBase() != null && mem.getBase().GetByteSize() != segSize ) size++;
+		
+	// addressing form	
+		if ( !option.isSpecialCase() && operands.size() != 0 && rel == null ) size++;
+		if ( mem != null && mem.isSibNeeded() ) size++;
+		if ( mem != null && mem.isDirect() ) size += segSize;
+		
+		return size;
+	}
+	
+}
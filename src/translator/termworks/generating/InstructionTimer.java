@@ -0,0 +1,91 @@
+package translator.termworks.generating;
+
+import java.util.ArrayList;
+
+import translator.table.OperandOption;
+import translator.table.tablecomponents.reserved.Command;
+import translator.termworks.syntax.operands.*;
+
+// Clocks of the instruction which CommandListingGenerator emits, found from
+// the selected OperandOption, kind of operands and addressing mode of memory operand.
+public abstract class InstructionTimer {
+
+	// null if command isn't in timing table
+	public static Clocks clocksOf(TimingModel model,Command cmd,OperandOption option,ArrayList < Operand > operands) {
+		MemoryOperand mem = null;
+		Relative rel = null;
+		for ( Operand operand : operands ) {
+			if ( operand instanceof MemoryOperand ) mem = (MemoryOperand) operand;
+			if ( operand instanceof Relative ) rel = (Relative) operand;
+		}
+		boolean isRelative = rel != null;
+		int size = ( operands.isEmpty() )?(0):( (isRelative)?(rel.calcSizeInBytes()):(operands.get(0).getOperandKind().getSize()) );
+		if ( !model.hasExtendedRegisters() && ( size == 4 || mem != null && isExtendedAddressing(mem) ) )
+			return Clocks.NOT_AVAILABLE;
+
+		String form = ( operands.isEmpty() )?("none"):( (isRelative)?("rel"):( (option.isSpecialCase())?("acc"):( (mem != null)?("mem"):("reg") ) ) );
+		String clocks = model.clocksOf(cmd.getName(),form + size);
+		if ( clocks == null ) clocks = model.clocksOf(cmd.getName(),form);
+		if ( clocks == null ) return null;
+		if ( clocks.equals("-") ) return Clocks.NOT_AVAILABLE;
+
+		String[] takenAndNot = clocks.split("/");
+		int ea = ( mem != null && model.isEffectiveAddressTimed() )?(effectiveAddressClocks(mem)):(0);
+		return new Clocks(Integer.parseInt(takenAndNot[0]),ea,( takenAndNot.length > 1 )?(Integer.parseInt(takenAndNot[1])):(-1));
+	}
+
+	// 32 bit base and index, FS and GS segment registers
+	private static boolean isExtendedAddressing(MemoryOperand mem) {
+		String seg = mem.getReplacementReg().getName().toLowerCase();
+		return mem.getBase() != null && mem.getBase().GetByteSize() == 4 || seg.equals("fs") || seg.equals("gs");
+	}
+
+	// 8086 calculates effective address by its components,
+	// base and index pairs bp + di and bx + si take one clock less than the other two
+	private static int effectiveAddressClocks(MemoryOperand mem) {
+		int clocks;
+		boolean isDisp = mem.isDirect() || mem.isOffsetPresent();
+		if ( mem.getBase() == null )
+			clocks = 6;
+		else if ( mem.getIndex() == null )
+			clocks = ( isDisp )?(9):(5);
+		else {
+			String pair = (mem.getBase().getName() + mem.getIndex().getName()).toLowerCase();
+			int fast = ( pair.equals("bpdi") || pair.equals("bxsi") )?(0):(1);
+			clocks = ( isDisp )?(11 + fast):(7 + fast);
+		}
+		if ( mem.isRegReplacement() ) clocks += 2;
+		return clocks;
+	}
+
+	public static class Clocks {
+		public final static Clocks NOT_AVAILABLE = new Clocks(-1,0,-1);
+
+		private final int base;
+		private final int effectiveAddress;
+		private final int notTaken;		// -1 if command isn't conditional jump
+
+		Clocks(int base,int effectiveAddress,int notTaken) {
+			this.base = base;
+			this.effectiveAddress = effectiveAddress;
+			this.notTaken = notTaken;
+		}
+
+		public boolean isAvailable() {
+			return base >= 0;
+		}
+
+		// taken jump is counted, as the worst case
+		public int total() {
+			return base + effectiveAddress;
+		}
+
+		@Override
+		public String toString() {
+			if ( !isAvailable() ) return "n/a";
+			String clocks = ( effectiveAddress == 0 )?(String.valueOf(base)):(base + "+" + effectiveAddress);
+			return ( notTaken < 0 )?(clocks):(clocks + "/" + notTaken);
+		}
+	}
+
+}
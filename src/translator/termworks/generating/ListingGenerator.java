@@ -2,37 +2,130 @@ package translator.termworks.generating;
 
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
 
+import translator.Translator;
 import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.AtomType;
 import translator.table.tablecomponents.userdefined.Segment;
 import translator.table.tablecomponents.userdefined.Variable;
 import translator.termworks.TermIterator;
+import translator.termworks.layout.Alignment;
+import translator.termworks.layout.SegmentLayout;
 import translator.termworks.syntax.operands.AbsoluteExpr;
 import translator.termworks.syntax.operands.Operand;
 
 public class ListingGenerator extends TermIterator {
+	private final static int VALUES_COLUMN_WIDTH = 30;
+	private final static int SOURCE_COLUMN_WIDTH = 40;
+	
 	private PrintWriter dest;
 	private ArrayList < ParsedLine > term;
-	private CommandListingGenerator localCmdGen;
+	private ArrayList < SegmentLayout > layouts;
+	private SegmentLayout curLayout;
+	private int layoutIter;
+	private int lineIndx;			// index of matched line in its layout
+	private ThreadLocal < CommandListingGenerator > localCmdGen;
 	private SegmentInfo curSegInf;
+	private Segment curSeg;
+	private SegmentImage curImage;
 	private int lineIter;
+	private String[] encodedCommands;
+	private int cmdIter;
+	private HashSet < Segment > codeSegments;
+	private BitSet termLines;
+	private TimingModel timing;
+	private InstructionTimer.Clocks[] commandClocks;
+	private int blockClocks;
+	private boolean isBlockTimed;
+	private boolean isBlockPartial;		// some line of block has no clocks
 	
-	public ListingGenerator(ArrayList<ParsedLine> term) {
+	// offsets are read from layouts, listing doesn't lay out lines itself
+	public ListingGenerator(ArrayList<ParsedLine> term,ArrayList < SegmentLayout > layouts) {
 		this.term = term;
+		this.layouts = layouts;
 	}
 
 	@Override
 	public void genOutput(PrintWriter writer) {
 		dest = writer;
-		localCmdGen = new CommandListingGenerator();
+		localCmdGen = ThreadLocal.withInitial(CommandListingGenerator::new);
 		lineIter = 1;
+		timing = TimingModel.byName(Translator.flags.getTiming());
+		isBlockTimed = isBlockPartial = false;
+		termLines = new BitSet();
+		for ( ParsedLine line : term ) 
+			termLines.set(line.getLineNumb());
+		encodeCommands();
+		cmdIter = layoutIter = 0;
 		iterateOverTerm(term);
 	}
 	
+	// offsets of all instructions are known before encoding, 
+	// so every instruction is encoded once and independently of others
+	private void encodeCommands() {
+		final ArrayList < ParsedLine > commands = new ArrayList < ParsedLine > ();
+		final ArrayList < SegmentInfo > places = new ArrayList < SegmentInfo > ();
+		codeSegments = new HashSet < Segment > ();
+		
+		for ( SegmentLayout layout : layouts ) {
+			List < ParsedLine > lines = layout.getLines();
+			for ( int i = 0; i < lines.size(); i++ ) {
+				if ( lines.get(i).firstIndexOf(AtomType.Command) == -1 ) continue;
+				codeSegments.add(layout.getSegment());
+				commands.add(lines.get(i));
+				places.add(new SegmentInfo(layout.offsetOf(i),layout.getSegment().getOffsetSize()));
+			}
+		}
+		
+		encodedCommands = new String[commands.size()];
+		commandClocks = new InstructionTimer.Clocks[commands.size()];
+		IntStream.range(0,commands.size()).parallel().forEach( i -> {
+			CommandListingGenerator cmdGen = localCmdGen.get();
+			encodedCommands[i] = cmdGen.generate(commands.get(i),places.get(i));
+			if ( timing != null ) commandClocks[i] = cmdGen.getClocks(timing);
+		});
+	}
+	
+	// segment line starts the next layout, ENDS line stands at the end of it
+	private void placeLine() {
+		if ( matchedLine.matches(defSegEndsPattern) ) {
+			if ( matchedLine.getAtomAt(1).getName().equals("segment") ) {
+				curLayout = layouts.get(layoutIter++);
+				curSeg = curLayout.getSegment();
+				curImage = new SegmentImage();
+				curSegInf = new SegmentInfo(0,curSeg.getOffsetSize());
+				lineIndx = -1;
+			} else 
+				curSegInf = new SegmentInfo(curLayout.byteSize(),curSeg.getOffsetSize());
+			return;
+		}
+		curSegInf = new SegmentInfo(curLayout.offsetOf(++lineIndx),curSeg.getOffsetSize());
+	}
+	
+	// macro call is printed once, lines of its expansion are marked by '+',
+	// lines moved by reordering of variables are printed where they are placed
 	@Override
 	protected void beforeStartMatching() throws StopIterate {
+		placeLine();
+		if ( isBlockTimed && ( matchedLine.startsWith(labelPattern) || matchedLine.matches(defSegEndsPattern) ) ) 
+			printBlockClocks();
+		if ( matchedLine.getLineNumb() < lineIter && !matchedLine.isExpanded() ) {
+			dest.printf("%-4s%-4d","",matchedLine.getLineNumb());
+			return;
+		}
 		for ( ; lineIter < matchedLine.getLineNumb() ; lineIter++ )
-			dest.printf("%-4s%-4d\n","",lineIter);
+			if ( !termLines.get(lineIter) ) 
+				dest.printf("%-4s%-4d\n","",lineIter);
+		if ( matchedLine.isExpanded() ) {
+			if ( lineIter == matchedLine.getLineNumb() ) 
+				dest.printf("%-4s%-4d%-30s %s\n","",lineIter++,"",matchedLine.getInvocation());
+			dest.printf("%-4s%-4s","","+");
+			return;
+		}
 		dest.printf("%-4s%-4d","",lineIter++);
 	}
 
@@ -44,14 +137,41 @@ public class ListingGenerator extends TermIterator {
 
 	@Override
 	protected void whenCommandMatched() {
-		dest.printf("%-30s %s\n", localCmdGen.generate(matchedLine,curSegInf),matchedLine);
+		if ( timing == null ) 
+			dest.printf("%-30s %s\n", encodedCommands[cmdIter],matchedLine);
+		else 
+			printTimedCommand(commandClocks[cmdIter]);
+		cmdIter++;
+	}
+	
+	// clocks are printed as a comment after source, commands missing in timing table aren't annotated,
+	// block with such command or with n/a one gets partial sum
+	private void printTimedCommand(InstructionTimer.Clocks clocks) {
+		isBlockTimed = true;
+		if ( clocks == null ) {
+			dest.printf("%-30s %s\n", encodedCommands[cmdIter],matchedLine);
+			isBlockPartial = true;
+			return;
+		}
+		dest.printf("%-30s %-" + SOURCE_COLUMN_WIDTH + "s; %s\n", encodedCommands[cmdIter],matchedLine,clocks);
+		if ( clocks.isAvailable() ) 
+			blockClocks += clocks.total();
+		else
+			isBlockPartial = true;
+	}
+	
+	// block ends before label or end of segment
+	private void printBlockClocks() {
+		dest.printf("%-39s%-" + SOURCE_COLUMN_WIDTH + "s; block : %d clocks on %s%s\n","","",blockClocks,timing.getName(),
+					( isBlockPartial )?(", partial : lines without clocks aren't counted"):(""));
+		blockClocks = 0;
+		isBlockTimed = isBlockPartial = false;
 	}
 	
 	@Override
 	protected void whenDirectiveMatched() {
 		if ( matchedLine.matches(defSegEndsPattern) ) {
 			if ( matchedLine.getAtomAt(1).getName().equals("segment") ) {
-				curSegInf = new SegmentInfo(0, (((Segment) matchedLine.getAtomAt(0)).getSegmentType() == Segment.SegmentType.bit16)?(2):(4) );
 				dest.printf("%-26s %s\n",curSegInf.offsetToString(),matchedLine);
 				return;
 			}
@@ -67,20 +187,64 @@ public class ListingGenerator extends TermIterator {
 			return;
 		}
 		
+		if ( Alignment.isAlignLine(matchedLine) ) {
+			generateAlign();
+			return;
+		}
+		
 //		if ( matchedLine.strMatches("^\\s*end.*$") ) {
 //
 //		}
 
 	}
 
+	// duplicated data is printed collapsed, as count[ value ],
+	// values which don't fit into the column are continued on next lines
 	private void generateVarDef() {
 		Variable var = (Variable) matchedLine.getAtomAt(0);
-		Operand oper = (Operand) matchedLine.getAtomAt(2);
-		String bytes = String.format("%s %s", 
-				buildDefaultHexRep(curSegInf.offset(),curSegInf.size()),
-				genHexFromOperand(oper,var.Size()));
-		dest.printf("%-30s %s\n",bytes,matchedLine);
-		curSegInf.inc(var.Size());
+		ArrayList < String > items = new ArrayList < String > ();
+		curImage.define(matchedLine.subArray(2),var.Size()).toListing(items,var.Size());
+		
+		String offset = buildDefaultHexRep(curSegInf.offset(),curSegInf.size());
+		ArrayList < String > rows = wrapItems(items,VALUES_COLUMN_WIDTH - offset.length() - 1);
+		dest.printf("%-30s %s\n",offset + " " + rows.get(0),matchedLine);
+		for ( int i = 1; i < rows.size(); i++ ) 
+			dest.printf("%-8s%-" + (offset.length() + 1) + "s%s\n","","",rows.get(i));
+	}
+	
+	// segment with commands is padded by no-operations, other segments by zeros,
+	// no-operations are timed as commands of the block
+	private void generateAlign() {
+		int padding = curLayout.lengthOf(lineIndx);
+		String offset = curSegInf.offsetToString();
+		ArrayList < String > fill = Alignment.fill(padding,codeSegments.contains(curSeg));
+		ArrayList < String > rows = wrapItems(fill,VALUES_COLUMN_WIDTH - offset.length() - 1);
+		if ( timing != null && codeSegments.contains(curSeg) && padding > 0 ) {
+			int clocks = 0;
+			for ( String nop : fill ) 
+				clocks += timing.clocksOfFill(nop);
+			dest.printf("%-30s %-" + SOURCE_COLUMN_WIDTH + "s; %d\n",offset + " " + rows.get(0),matchedLine,clocks);
+			blockClocks += clocks;
+			isBlockTimed = true;
+		} else
+			dest.printf("%-30s %s\n",offset + " " + rows.get(0),matchedLine);
+		for ( int i = 1; i < rows.size(); i++ ) 
+			dest.printf("%-8s%-" + (offset.length() + 1) + "s%s\n","","",rows.get(i));
+	}
+	
+	private static ArrayList < String > wrapItems(ArrayList < String > items,int width) {
+		ArrayList < String > rows = new ArrayList < String > ();
+		StringBuffer row = new StringBuffer();
+		for ( String item : items ) {
+			if ( row.length() != 0 && row.length() + 1 + item.length() > width ) {
+				rows.add(row.toString());
+				row = new StringBuffer();
+			}
+			if ( row.length() != 0 ) row.append(' ');
+			row.append(item);
+		}
+		rows.add(row.toString());
+		return rows;
 	}
 	
 	public static String buildDefaultHexRep(int value,int byteSize) {
@@ -106,7 +270,7 @@ public class ListingGenerator extends TermIterator {
 		return " ERROR ";
 	}
 	
-	public class SegmentInfo { 
+	public static class SegmentInfo { 
 		private int curSegmentOffset;
 		private int segmentSize;
 		
@@ -128,7 +292,7 @@ public class ListingGenerator extends TermIterator {
 		}
 		
 		public String offsetToString() {
-			return buildDefaultHexRep(curSegInf.offset(),curSegInf.size());
+			return buildDefaultHexRep(curSegmentOffset,segmentSize);
 		}
 	}
 	
@@ -0,0 +1,159 @@
+package translator.termworks.generating;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import translator.table.tablecomponents.Atom;
+import translator.termworks.syntax.operands.AbsoluteExpr;
+import translator.termworks.syntax.operands.DupOperand;
+
+// Data of one segment. Values of initializers are kept in one primitive buffer,
+// every run of them is appended by single copy. Duplications are kept 
+// as run-length entries, so their size doesn't depend on duplication count.
+public class SegmentImage {
+	private final static int INITIAL_CAPACITY = 256;
+	
+	private long[] values;
+	private int valuesSize;
+	private ArrayList < Chunk > chunks;
+	private long byteSize;
+	
+	public interface Chunk {
+		long elementsNumb();
+		void toListing(ArrayList < String > items,int elemSize);
+	}
+	
+	// run of values stored in image buffer
+	public class Literal implements Chunk {
+		private int start;
+		private int length;
+		
+		Literal(int start,int length) {
+			this.start = start;
+			this.length = length;
+		}
+		
+		@Override
+		public long elementsNumb() {
+			return length;
+		}
+		
+		@Override
+		public void toListing(ArrayList < String > items,int elemSize) {
+			for ( int i = start; i < start + length; i++ ) 
+				items.add(ListingGenerator.buildDefaultHexRep((int) values[i],elemSize));
+		}
+	}
+	
+	// count times repeated body, printed as count[ body ]
+	public static class Repeat implements Chunk {
+		private long count;
+		private Chunk[] body;
+		
+		public Repeat(long count,Chunk[] body) {
+			this.count = count;
+			this.body = body;
+		}
+		
+		@Override
+		public long elementsNumb() {
+			long numb = 0;
+			for ( Chunk chunk : body ) 
+				numb += chunk.elementsNumb();
+			return count * numb;
+		}
+		
+		@Override
+		public void toListing(ArrayList < String > items,int elemSize) {
+			ArrayList < String > bodyItems = new ArrayList < String > ();
+			for ( Chunk chunk : body ) 
+				chunk.toListing(bodyItems,elemSize);
+			items.add(ListingGenerator.buildDefaultHexRep((int) count,2) + "[" + String.join(" ",bodyItems) + "]");
+		}
+	}
+	
+	// sequence of chunks defined by one line
+	private static class Sequence implements Chunk {
+		private Chunk[] parts;
+		
+		Sequence(Chunk[] parts) {
+			this.parts = parts;
+		}
+		
+		@Override
+		public long elementsNumb() {
+			long numb = 0;
+			for ( Chunk chunk : parts ) 
+				numb += chunk.elementsNumb();
+			return numb;
+		}
+		
+		@Override
+		public void toListing(ArrayList < String > items,int elemSize) {
+			for ( Chunk chunk : parts ) 
+				chunk.toListing(items,elemSize);
+		}
+	}
+	
+	public SegmentImage() {
+		values = new long[INITIAL_CAPACITY];
+		valuesSize = 0;
+		chunks = new ArrayList < Chunk > ();
+		byteSize = 0;
+	}
+	
+	// initializers must be already calculated
+	public Chunk define(ArrayList < ? extends Atom > initializers,int elemSize) {
+		Chunk chunk = chunkOf(initializers,elemSize);
+		chunks.add(chunk);
+		byteSize += chunk.elementsNumb() * elemSize;
+		return chunk;
+	}
+	
+	public long byteSize() {
+		return byteSize;
+	}
+	
+	public int chunksNumb() {
+		return chunks.size();
+	}
+	
+	private Chunk chunkOf(ArrayList < ? extends Atom > initializers,int elemSize) {
+		ArrayList < Chunk > parts = new ArrayList < Chunk > ();
+		int runStart = 0;
+		for ( int i = 0; i <= initializers.size(); i++ ) {
+			if ( i < initializers.size() && !(initializers.get(i) instanceof DupOperand) ) 
+				continue;
+			if ( runStart < i ) 
+				parts.add(append(evalRun(initializers,runStart,i,elemSize)));
+			if ( i < initializers.size() ) {
+				DupOperand dup = (DupOperand) initializers.get(i);
+				parts.add(new Repeat(dup.countValue(),new Chunk[] { chunkOf(dup.getInitializer(),elemSize) }));
+			}
+			runStart = i + 1;
+		}
+		if ( parts.size() == 1 ) return parts.get(0);
+		return new Sequence(parts.toArray(new Chunk[parts.size()]));
+	}
+	
+	private static long[] evalRun(ArrayList < ? extends Atom > initializers,int from,int to,int elemSize) {
+		int numb = 0;
+		for ( int i = from; i < to; i++ ) 
+			numb += ((AbsoluteExpr) initializers.get(i)).elementsNumb(elemSize);
+		long[] run = new long[numb];
+		int pos = 0;
+		for ( int i = from; i < to; i++ ) 
+			pos += ((AbsoluteExpr) initializers.get(i)).values(run,pos,elemSize);
+		return run;
+	}
+	
+	private Literal append(long[] run) {
+		if ( valuesSize + run.length > values.length ) 
+			values = Arrays.copyOf(values,Math.max(values.length * 2,valuesSize + run.length));
+		System.arraycopy(run,0,values,valuesSize,run.length);
+		Literal literal = new Literal(valuesSize,run.length);
+		valuesSize += run.length;
+		return literal;
+	}
+	
+}
@@ -0,0 +1,77 @@
+package translator.termworks.generating;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import translator.lexer.ParsedLine;
+import translator.table.OperandOption;
+import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
+import translator.table.tablecomponents.reserved.Command;
+import translator.table.tablecomponents.userdefined.Segment;
+import translator.termworks.TermIterator;
+import translator.termworks.syntax.operands.Operand;
+import translator.termworks.syntax.operands.UndefinedOperand;
+
+// Bytes saved by the shortest encodings of -Osize in every segment,
+// compared with the option which would be chosen in order of instruction table.
+public class SizeSelectionReport extends TermIterator {
+	private LinkedHashMap < Segment, int[] > savings;		// commands shortened and bytes saved
+	private int[] curSavings;
+	private int segSize;
+
+	public void collect(ArrayList < ParsedLine > term) {
+		savings = new LinkedHashMap < Segment, int[] > ();
+		curSavings = null;
+		iterateOverTerm(term);
+	}
+
+	@Override
+	protected void whenLabelMatched() {	}
+
+	@Override
+	protected void whenDirectiveMatched() {
+		if ( !matchedLine.matches(defSegEndsPattern) ) return;
+		if ( matchedLine.getAtomAt(1).getName().equals("segment") ) {
+			Segment seg = (Segment) matchedLine.getAtomAt(0);
+			savings.put(seg,curSavings = new int[2]);
+			segSize = seg.getOffsetSize();
+		} else
+			curSavings = null;
+	}
+
+	@Override
+	protected void whenCommandMatched() {
+		if ( curSavings == null ) return;
+		int cmdIndx = matchedLine.firstIndexOf(AtomType.Command);
+		Command cmd = (Command) matchedLine.getAtomAt(cmdIndx);
+		ArrayList < Operand > operands = new ArrayList < Operand > ();
+		Atom.castCopy(operands,matchedLine.subArray(cmdIndx + 1));
+		for ( Operand operand : operands )
+			if ( operand instanceof UndefinedOperand || operand.getOperandKind() == null )
+				return;
+
+		OperandOption byTable = cmd.getOptionForOperands(operands);
+		OperandOption shortest = InstructionSizer.shortestOption(cmd,operands,segSize);
+		if ( byTable == null || shortest == null ) return;
+		int saved = InstructionSizer.sizeOf(byTable,operands,segSize) - InstructionSizer.sizeOf(shortest,operands,segSize);
+		if ( saved > 0 ) {
+			curSavings[0]++;
+			curSavings[1] += saved;
+		}
+	}
+
+	@Override
+	public void genOutput(PrintWriter writer) {
+		int total = 0;
+		writer.println("Shortest encodings : ");
+		for ( Entry < Segment, int[] > entry : savings.entrySet() ) {
+			writer.printf("\t%-16s : %d bytes saved in %d commands\n",entry.getKey().getName(),entry.getValue()[1],entry.getValue()[0]);
+			total += entry.getValue()[1];
+		}
+		writer.println("\tTotal            : " + total + " bytes saved");
+	}
+
+}
@@ -0,0 +1,97 @@
+package translator.termworks.generating;
+
+import java.util.HashMap;
+
+// Clocks of commands on processors which translator targets, taken from Intel programmer's manuals.
+// Ranges are given by their worst case. 8086 adds clocks of effective address calculation to memory forms,
+// 80286 and 80386 add number of components of next instruction to taken jumps, it isn't counted here.
+public enum TimingModel {
+	I8086("8086",0,true),
+	I286("286",1,false),
+	I386("386",2,false);
+
+	//   command and form		8086	286		386		form : none, reg, mem, acc ( special register ), rel,
+	//													size is added for div, mul and for jae, which got rel16 form with 80386
+	private final static String[] TABLE = {
+		"mov mem				9		3		2",
+		"sti none				2		2		3",
+		"div mem1				96		17		17",
+		"div mem2				168		25		25",
+		"div mem4				-		-		41",
+		"mul reg1				77		13		14",
+		"mul reg2				133		21		22",
+		"mul reg4				-		-		38",
+		"adc mem				9		7		6",
+		"and mem				9		7		6",
+		"test mem				9		6		5",
+		"or acc					4		3		2",
+		"or reg					4		3		2",
+		"jmp rel				15		7		7",
+		"jae rel1				16/4	7/3		7/3",
+		"jae rel2				-		-		7/3"
+	};
+
+	// no-operations which ALIGN fills code with, lea counts its effective address on 8086
+	private final static String[] FILL_TABLE = {
+		"90						3		3		3",		// nop
+		"8BF6					2		2		2",		// mov si,si
+		"8D7400					11		3		2",		// lea si,[si+00]
+		"8DB40000				11		3		2"		// lea si,[si+0000]
+	};
+
+	private final String name;
+	private final int column;
+	private final boolean isEffectiveAddressTimed;
+	private final static HashMap < String, String[] > clocks = new HashMap < String, String[] > ();
+	private final static HashMap < String, String[] > fillClocks = new HashMap < String, String[] > ();
+
+	static {
+		for ( String row : TABLE ) {
+			String[] fields = row.split("\\s+");
+			clocks.put(fields[0] + " " + fields[1],new String[] { fields[2], fields[3], fields[4] });
+		}
+		for ( String row : FILL_TABLE ) {
+			String[] fields = row.split("\\s+");
+			fillClocks.put(fields[0],new String[] { fields[1], fields[2], fields[3] });
+		}
+	}
+
+	TimingModel(String name,int column,boolean isEffectiveAddressTimed) {
+		this.name = name;
+		this.column = column;
+		this.isEffectiveAddressTimed = isEffectiveAddressTimed;
+	}
+
+	public static TimingModel byName(String name) {
+		for ( TimingModel model : values() )
+			if ( model.name.equals(name) )
+				return model;
+		return null;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	// 32 bit operands and addressing appeared with 80386
+	public boolean hasExtendedRegisters() {
+		return this == I386;
+	}
+
+	public boolean isEffectiveAddressTimed() {
+		return isEffectiveAddressTimed;
+	}
+
+	// nop is given as listing prints it, by hex bytes separated by spaces
+	public int clocksOfFill(String nop) {
+		return Integer.parseInt(fillClocks.get(nop.replace(" ",""))[column]);
+	}
+
+	// clocks as written in table, taken / not taken for conditional jumps, "-" if processor hasn't the form,
+	// null if table has no entry
+	String clocksOf(String mnemonic,String form) {
+		String[] row = clocks.get(mnemonic + " " + form);
+		return ( row == null )?(null):(row[column]);
+	}
+
+}
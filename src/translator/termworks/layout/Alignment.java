@@ -0,0 +1,61 @@
+package translator.termworks.layout;
+
+import java.util.ArrayList;
+
+import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.reserved.Directive;
+import translator.termworks.syntax.operands.AbsoluteExpr;
+
+// ALIGN n and EVEN lines, their size is the padding up to the next multiple of n,
+// so it depends on the offset where line stands and is known only during layout.
+public abstract class Alignment {
+	public final static int MAX_BOUNDARY = 16;		// paragraph, alignment of segment itself
+
+	// no-operation sequences of 8086, longest ones first
+	private final static String[] NOPS = { "8D B4 00 00", "8D 74 00", "8B F6", "90" };
+
+	public static boolean isAlignLine(ParsedLine line) {
+		Atom first = line.getAtomAt(0);
+		return first instanceof Directive && ( first.getName().equals("align") || first.getName().equals("even") );
+	}
+
+	public static boolean isEven(ParsedLine line) {
+		return line.getAtomAt(0).getName().equals("even");
+	}
+
+	public static boolean isValidBoundary(long boundary) {
+		return boundary > 0 && boundary <= MAX_BOUNDARY && (boundary & (boundary - 1)) == 0;
+	}
+
+	public static int boundaryOf(ParsedLine line) {
+		if ( isEven(line) ) return 2;
+		return (int) ((AbsoluteExpr) line.getAtomAt(1)).value();
+	}
+
+	public static int paddingAt(int offset,int boundary) {
+		return -offset & (boundary - 1);
+	}
+
+	// code is padded by as few instructions as possible, data by zero bytes
+	public static ArrayList < String > fill(int length,boolean isCode) {
+		ArrayList < String > items = new ArrayList < String > ();
+		while ( length > 0 ) {
+			if ( !isCode ) {
+				items.add("00");
+				length--;
+				continue;
+			}
+			for ( String nop : NOPS ) {
+				int nopLength = (nop.length() + 1) / 3;
+				if ( nopLength <= length ) {
+					items.add(nop);
+					length -= nopLength;
+					break;
+				}
+			}
+		}
+		return items;
+	}
+
+}
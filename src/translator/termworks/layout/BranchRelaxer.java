@@ -0,0 +1,278 @@
+package translator.termworks.layout;
+
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import translator.Printable;
+import translator.errorhandling.ErrorReporter;
+import translator.errorhandling.ErrorsTable;
+import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
+import translator.table.tablecomponents.userdefined.Label;
+import translator.termworks.generating.InstructionSizer;
+import translator.termworks.syntax.operands.Relative;
+
+// Gives every JMP/Jcc the shortest displacement which reaches its target.
+// All branches start as rel8, only the ones which overflow are lengthened
+// and only the branches spanning a lengthened one are checked again.
+// Sizes are taken from segment layouts and relaxed offsets are given back to them.
+public class BranchRelaxer extends Printable {
+	private ErrorReporter reporter;
+
+	private int iterations;
+	private int branchesNumb;
+	private int lengthenedNumb;
+	private int bytesSaved;
+
+	public BranchRelaxer(ErrorsTable errTab) {
+		reporter = new ErrorReporter(errTab);
+	}
+
+	// layouts get relaxed offsets, as well as symbols of their segments
+	public void relax(ArrayList < SegmentLayout > layouts) {
+		iterations = branchesNumb = lengthenedNumb = bytesSaved = 0;
+		for ( SegmentLayout layout : layouts )
+			new SegmentBlock(layout).relax();
+	}
+
+	public int getIterations() {
+		return iterations;
+	}
+
+	public int getBytesSaved() {
+		return bytesSaved;
+	}
+
+	private class Branch {
+		private ParsedLine line;
+		private Relative rel;
+		private int index;
+		private int shortLen;
+		private int nearLen;
+		private boolean queued;
+
+		Branch(ParsedLine line,Relative rel,int index) {
+			this.line = line;
+			this.rel = rel;
+			this.index = index;
+		}
+	}
+
+	private class SegmentBlock {
+		private SegmentLayout layout;
+		private int segSize;
+		private ArrayList < Integer > sizes = new ArrayList < Integer > ();
+		private ArrayList < Branch > branches = new ArrayList < Branch > ();
+		private HashMap < Label, Integer > labelIndexes = new HashMap < Label, Integer > ();
+		private TreeMap < Integer, Integer > alignIndexes = new TreeMap < Integer, Integer > ();	// index of line and its boundary
+		private OffsetTree offsets;
+		private SpanIndex spans;
+
+		// sizes start from the ones layout has assigned, branches are given their short form
+		SegmentBlock(SegmentLayout layout) {
+			this.layout = layout;
+			segSize = layout.getSegment().getOffsetSize();
+			List < ParsedLine > lines = layout.getLines();
+			for ( int i = 0; i < lines.size(); i++ ) {
+				ParsedLine line = lines.get(i);
+				if ( line.getAtomAt(0) instanceof Label ) 
+					labelIndexes.put((Label) line.getAtomAt(0),i);
+				if ( Alignment.isAlignLine(line) ) 
+					alignIndexes.put(i,Alignment.boundaryOf(line));
+				Relative rel = relativeOf(line);
+				sizes.add(( rel == null )?(layout.lengthOf(i)):(addBranch(line,rel,i)));
+			}
+		}
+
+		private int addBranch(ParsedLine line,Relative rel,int index) {
+			Branch branch = new Branch(line,rel,index);
+			rel.setDisplacementSize(segSize);
+			branch.nearLen = InstructionSizer.sizeOf(line,segSize);
+			if ( branch.nearLen == 0 ) branch.nearLen = -1;		// there is no near form
+			rel.setDisplacementSize(Relative.SHORT_SIZE);
+			branch.shortLen = InstructionSizer.sizeOf(line,segSize);
+
+			branches.add(branch);
+			branchesNumb++;
+			return branch.shortLen;
+		}
+
+		void relax() {
+			offsets = new OffsetTree(sizes);
+			spans = new SpanIndex(sizes.size());
+			ArrayDeque < Branch > worklist = new ArrayDeque < Branch > ();
+			for ( Branch branch : branches ) {
+				if ( labelIndexes.get(branch.rel.getTarget()) == null ) {		// target is outside of segment
+					if ( branch.nearLen < 0 ) 
+						reporter.reportJumpOutOfRange(branch.line);
+					else
+						lengthen(branch);
+					continue;
+				}
+				spans.add(branch,labelIndexes.get(branch.rel.getTarget()));
+				branch.queued = true;
+				worklist.add(branch);
+			}
+			updatePaddings();
+
+			// paddings are updated when branches settled, then changed ones are spanned like lengthened branch,
+			// so relaxation ends only when neither branches nor paddings change
+			do {
+				while ( !worklist.isEmpty() ) {
+					Branch branch = worklist.poll();
+					branch.queued = false;
+					iterations++;
+
+					if ( !branch.rel.isShort() || Relative.isInShortRange(displacement(branch)) )
+						continue;
+
+					if ( branch.nearLen < 0 ) {
+						reporter.reportJumpOutOfRange(branch.line);
+						continue;
+					}
+
+					lengthen(branch);
+					requeueSpanning(branch.index,worklist);
+				}
+
+				for ( int changed : updatePaddings() ) 
+					requeueSpanning(changed,worklist);
+			} while ( !worklist.isEmpty() );
+
+			for ( Branch branch : branches )
+				if ( branch.nearLen > 0 )
+					bytesSaved += branch.nearLen - sizes.get(branch.index);
+			publishOffsets();
+		}
+
+		private void lengthen(Branch branch) {
+			if ( branch.nearLen < 0 ) return;
+			offsets.add(branch.index,branch.nearLen - branch.shortLen);
+			sizes.set(branch.index,branch.nearLen);
+			branch.rel.setDisplacementSize(segSize);
+			lengthenedNumb++;
+		}
+
+		// alignment lines are walked in order, so padding of every one is computed from already updated offsets
+		private ArrayList < Integer > updatePaddings() {
+			ArrayList < Integer > changed = new ArrayList < Integer > ();
+			for ( Entry < Integer, Integer > align : alignIndexes.entrySet() ) {
+				int index = align.getKey();
+				int padding = Alignment.paddingAt(offsets.offsetOf(index),align.getValue());
+				if ( padding == sizes.get(index) ) continue;
+				offsets.add(index,padding - sizes.get(index));
+				sizes.set(index,padding);
+				changed.add(index);
+			}
+			return changed;
+		}
+
+		private int displacement(Branch branch) {
+			return offsets.offsetOf(labelIndexes.get(branch.rel.getTarget())) - offsets.offsetOf(branch.index + 1);
+		}
+
+		// growth at grownIndex changes displacement only of branches which span it
+		private void requeueSpanning(int grownIndex,ArrayDeque < Branch > worklist) {
+			for ( Branch other : spans.spanning(grownIndex) ) 
+				if ( !other.queued ) {
+					other.queued = true;
+					worklist.add(other);
+				}
+		}
+
+		private void publishOffsets() {
+			long[] relaxed = new long[sizes.size() + 1];
+			for ( int i = 0; i < relaxed.length; i++ ) 
+				relaxed[i] = offsets.offsetOf(i);
+			layout.update(relaxed);
+			if ( layout.isOverflowed() ) 
+				reporter.reportSegmentTooLarge(layout.getOverflowLine());
+		}
+	}
+
+	private static Relative relativeOf(ParsedLine line) {
+		if ( line.firstIndexOf(AtomType.Command) == -1 ) return null;
+		for ( Atom atom : line.getAtoms() )
+			if ( atom instanceof Relative )
+				return (Relative) atom;
+		return null;
+	}
+
+	// Fenwick tree over line sizes, offset of line is the sum of sizes before it
+	private static class OffsetTree {
+		private int[] tree;
+
+		OffsetTree(ArrayList < Integer > sizes) {
+			tree = new int[sizes.size() + 1];
+			for ( int i = 0; i < sizes.size(); i++ )
+				add(i,sizes.get(i));
+		}
+
+		void add(int index,int delta) {
+			for ( int i = index + 1; i < tree.length; i += i & -i )
+				tree[i] += delta;
+		}
+
+		int offsetOf(int index) {
+			int sum = 0;
+			for ( int i = index; i > 0; i -= i & -i )
+				sum += tree[i];
+			return sum;
+		}
+	}
+
+	// Segment tree over line indexes, branch is kept in nodes which cover lines between it and its target,
+	// so branches spanning a line are found on the way from the line's leaf to the root.
+	// Lengthened branches can't be requeued, they are dropped from nodes when met.
+	private static class SpanIndex {
+		private int leaves = 1;
+		private ArrayList < ArrayList < Branch > > nodes;
+
+		SpanIndex(int linesNumb) {
+			while ( leaves < linesNumb + 1 ) leaves <<= 1;
+			nodes = new ArrayList < ArrayList < Branch > > (Collections.nCopies(2*leaves,(ArrayList < Branch >) null));
+		}
+
+		// displacement is counted from the line after branch, so span is [ branch + 1, target ) or [ target, branch + 1 )
+		void add(Branch branch,int target) {
+			int from = Math.min(branch.index + 1,target), to = Math.max(branch.index + 1,target);
+			for ( int l = from + leaves, r = to + leaves; l < r; l >>= 1, r >>= 1 ) {
+				if ( (l & 1) == 1 ) nodeAt(l++).add(branch);
+				if ( (r & 1) == 1 ) nodeAt(--r).add(branch);
+			}
+		}
+
+		ArrayList < Branch > spanning(int index) {
+			ArrayList < Branch > found = new ArrayList < Branch > ();
+			for ( int node = index + leaves; node > 0; node >>= 1 ) {
+				ArrayList < Branch > kept = nodes.get(node);
+				if ( kept == null ) continue;
+				kept.removeIf( branch -> !branch.rel.isShort() );
+				found.addAll(kept);
+			}
+			return found;
+		}
+
+		private ArrayList < Branch > nodeAt(int node) {
+			if ( nodes.get(node) == null ) nodes.set(node,new ArrayList < Branch > ());
+			return nodes.get(node);
+		}
+	}
+
+	@Override
+	public void genOutput(PrintWriter writer) {
+		writer.println("Branch relaxation : ");
+		writer.println("\tBranches         : " + branchesNumb);
+		writer.println("\tLengthened       : " + lengthenedNumb);
+		writer.println("\tIterations       : " + iterations);
+		writer.println("\tBytes saved      : " + bytesSaved);
+	}
+
+}
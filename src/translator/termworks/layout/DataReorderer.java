@@ -0,0 +1,129 @@
+package translator.termworks.layout;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import translator.Printable;
+import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.userdefined.Label;
+import translator.table.tablecomponents.userdefined.Segment;
+import translator.table.tablecomponents.userdefined.Variable;
+import translator.termworks.generating.ListingGenerator;
+
+// Reorders variables of segments named by -reorder, the most aligned ones go first,
+// so ALIGN lines need less padding. Variable is moved together with ALIGN lines before it.
+// Only runs of variables are reordered, labels and commands break runs and stay in place,
+// since code can depend on what follows them. Variable right after label stays under it too.
+// Symbols get offsets of new order when layout is assigned again.
+public class DataReorderer extends Printable {
+	private final static Comparator < VariableGroup > byAlignment =
+			Comparator.comparingInt((VariableGroup group) -> group.boundary).thenComparingInt(group -> group.elemSize).reversed();
+
+	private Set < String > segNames;
+	private LinkedHashMap < Segment, int[] > sizes = new LinkedHashMap < Segment, int[] > ();	// before and after reordering
+
+	public DataReorderer(Set < String > segNames) {
+		this.segNames = segNames;
+	}
+
+	public void reorder(ArrayList < SegmentLayout > layouts) {
+		for ( SegmentLayout layout : layouts ) {
+			if ( !segNames.contains(layout.getSegment().getName().toLowerCase()) ) continue;
+			sizes.put(layout.getSegment(),new int[] { layout.byteSize(), layout.byteSize() });
+			reorder(layout);
+		}
+	}
+
+	public void sizesAfter(ArrayList < SegmentLayout > layouts) {
+		for ( SegmentLayout layout : layouts )
+			if ( sizes.containsKey(layout.getSegment()) )
+				sizes.get(layout.getSegment())[1] = layout.byteSize();
+	}
+
+	// start of every run is shifted by what runs before it have saved
+	private void reorder(SegmentLayout layout) {
+		List < ParsedLine > lines = layout.getLines();
+		ArrayList < VariableGroup > run = new ArrayList < VariableGroup > ();
+		int runStart = 0, groupStart = 0, shift = 0;
+		boolean isAfterLabel = false;
+
+		for ( int i = 0; i <= lines.size(); i++ ) {
+			if ( i < lines.size() && Alignment.isAlignLine(lines.get(i)) ) continue;
+			if ( i < lines.size() && lines.get(i).getAtomAt(0) instanceof Variable && !isAfterLabel ) {
+				run.add(new VariableGroup(lines.subList(groupStart,i + 1)));
+				groupStart = i + 1;
+				continue;
+			}
+
+			int end = place(lines.subList(groupStart,i),reorderRun(lines,runStart,run,layout.offsetOf(runStart) + shift));
+			shift = end - layout.offsetOf(i);
+			isAfterLabel = i < lines.size() && lines.get(i).getAtomAt(0) instanceof Label && lines.get(i).atomsSize() == 1;
+			run.clear();
+			runStart = groupStart = i + 1;
+		}
+	}
+
+	// new order is kept only if it ends the run earlier, so nothing after the run can grow
+	private int reorderRun(List < ParsedLine > lines,int runStart,ArrayList < VariableGroup > run,int start) {
+		ArrayList < VariableGroup > sorted = new ArrayList < VariableGroup > (run);
+		sorted.sort(byAlignment);
+		int keptEnd = place(run,start);
+		int sortedEnd = place(sorted,start);
+		if ( sortedEnd >= keptEnd ) return keptEnd;
+
+		int pos = runStart;
+		for ( VariableGroup group : sorted )
+			for ( ParsedLine line : group.lines )
+				lines.set(pos++,line);
+		return sortedEnd;
+	}
+
+	private static int place(ArrayList < VariableGroup > groups,int offset) {
+		for ( VariableGroup group : groups )
+			offset = place(group.lines,offset);
+		return offset;
+	}
+
+	private static int place(List < ParsedLine > lines,int offset) {
+		for ( ParsedLine line : lines ) {
+			if ( Alignment.isAlignLine(line) )
+				offset += Alignment.paddingAt(offset,Alignment.boundaryOf(line));
+			else
+				offset += (int) ((Variable) line.getAtomAt(0)).byteLength();
+		}
+		return offset;
+	}
+
+	// variable with ALIGN lines before it
+	private static class VariableGroup {
+		private ArrayList < ParsedLine > lines;
+		private int boundary = 1;
+		private int elemSize;
+
+		VariableGroup(List < ParsedLine > lines) {
+			this.lines = new ArrayList < ParsedLine > (lines);
+			for ( ParsedLine line : lines )
+				if ( Alignment.isAlignLine(line) )
+					boundary = Math.max(boundary,Alignment.boundaryOf(line));
+			elemSize = ((Variable) lines.get(lines.size() - 1).getAtomAt(0)).Size();
+		}
+	}
+
+	@Override
+	public void genOutput(PrintWriter writer) {
+		writer.println("Reordered segments : ");
+		writer.println("                N a m e         		Before	After");
+		for ( Entry < Segment, int[] > entry : sizes.entrySet() )
+			writer.printf("%-40s%-8s%-8s\n",
+								entry.getKey().getName().toUpperCase(),
+								ListingGenerator.buildDefaultHexRep(entry.getValue()[0],2),
+								ListingGenerator.buildDefaultHexRep(entry.getValue()[1],2));
+		writer.println();
+	}
+
+}
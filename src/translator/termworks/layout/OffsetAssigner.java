@@ -0,0 +1,40 @@
+package translator.termworks.layout;
+
+import java.util.ArrayList;
+
+import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.userdefined.Segment;
+import translator.termworks.TermIterator;
+
+// Offsets inside a segment are the prefix sum of its line sizes and segments
+// don't depend on each other, so segments are laid out concurrently and 
+// offsets are published into the symbols when whole segment is done.
+public abstract class OffsetAssigner {
+
+	public static ArrayList < SegmentLayout > assign(ArrayList < ParsedLine > term) {
+		ArrayList < SegmentLayout > layouts = split(term);
+		layouts.parallelStream().forEach(SegmentLayout::assign);
+		return layouts;
+	}
+	
+	private static ArrayList < SegmentLayout > split(ArrayList < ParsedLine > term) {
+		ArrayList < SegmentLayout > layouts = new ArrayList < SegmentLayout > ();
+		Segment seg = null;
+		int start = 0;
+		
+		for ( int i = 0; i < term.size(); i++ ) {
+			ParsedLine line = term.get(i);
+			if ( !line.matches(TermIterator.defSegEndsPattern) ) continue;
+			
+			if ( seg != null ) 
+				layouts.add(new SegmentLayout(seg,term.subList(start,i)));
+			seg = ( line.getAtomAt(1).getName().equals("segment") )?((Segment) line.getAtomAt(0)):(null);
+			start = i + 1;
+		}
+		if ( seg != null ) 
+			layouts.add(new SegmentLayout(seg,term.subList(start,term.size())));
+		
+		return layouts;
+	}
+	
+}
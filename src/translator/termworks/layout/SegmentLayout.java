@@ -0,0 +1,121 @@
+package translator.termworks.layout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
+import translator.table.tablecomponents.userdefined.Identifier;
+import translator.table.tablecomponents.userdefined.Label;
+import translator.table.tablecomponents.userdefined.Segment;
+import translator.table.tablecomponents.userdefined.Variable;
+import translator.termworks.generating.InstructionSizer;
+
+// Lines of one segment and their offsets
+public class SegmentLayout {
+	private Segment seg;
+	private List < ParsedLine > lines;
+	private long[] offsets;		// offsets[i] - offset of i-th line, offsets[lines.size()] - segment size
+	private int overflowIndx = -1;	// first line which doesn't fit into offset size of segment
+	
+	public SegmentLayout(Segment seg, List < ParsedLine > lines) {
+		this.seg = seg;
+		this.lines = lines;
+	}
+	
+	public Segment getSegment() {
+		return seg;
+	}
+	
+	public List < ParsedLine > getLines() {
+		return lines;
+	}
+	
+	public int offsetOf(int lineIndx) {
+		return (int) offsets[lineIndx];
+	}
+	
+	public int lengthOf(int lineIndx) {
+		return (int) (offsets[lineIndx + 1] - offsets[lineIndx]);
+	}
+	
+	public int byteSize() {
+		return (int) offsets[lines.size()];
+	}
+	
+	// offsets of overflowed segment aren't published
+	public boolean isOverflowed() {
+		return overflowIndx != -1;
+	}
+	
+	public ParsedLine getOverflowLine() {
+		return lines.get(overflowIndx);
+	}
+	
+	void assign() {
+		offsets = new long[lines.size() + 1];
+		IntStream.range(0,lines.size()).parallel().forEach( i -> offsets[i + 1] = sizeOf(lines.get(i)) );
+		if ( lines.stream().anyMatch(Alignment::isAlignLine) ) 
+			alignedPrefix();
+		else
+			Arrays.parallelPrefix(offsets,Long::sum);
+		
+		if ( !findOverflow() ) 
+			publish();
+	}
+	
+	// offsets found by later pass replace assigned ones, lengthened branches can overflow segment
+	void update(long[] offsets) {
+		this.offsets = offsets;
+		if ( !findOverflow() ) 
+			publish();
+	}
+	
+	private boolean findOverflow() {
+		long maxOffset = (1L << 8*seg.getOffsetSize()) - 1;
+		overflowIndx = -1;
+		if ( offsets[lines.size()] <= maxOffset ) 
+			return false;
+		for ( overflowIndx = 0; offsets[overflowIndx + 1] <= maxOffset; overflowIndx++ );
+		return true;
+	}
+	
+	// padding depends on offset of the line, so sums go sequentially
+	private void alignedPrefix() {
+		for ( int i = 0; i < lines.size(); i++ ) {
+			if ( Alignment.isAlignLine(lines.get(i)) ) 
+				offsets[i + 1] = Alignment.paddingAt((int) offsets[i],Alignment.boundaryOf(lines.get(i)));
+			offsets[i + 1] += offsets[i];
+		}
+	}
+	
+	private long sizeOf(ParsedLine line) {
+		Atom first = line.getAtomAt(0);
+		if ( first instanceof Variable ) 
+			return ((Variable) first).byteLength();
+		if ( line.firstIndexOf(AtomType.Command) != -1 ) 
+			return InstructionSizer.sizeOf(line,seg.getOffsetSize());
+		return 0;
+	}
+	
+	private void publish() {
+		IntStream.range(0,lines.size()).parallel().forEach( i -> {
+			Atom first = lines.get(i).getAtomAt(0);
+			if ( first instanceof Label || first instanceof Variable ) 
+				((Identifier) first).setOffset((int) offsets[i]);
+		});
+		
+		ArrayList < Variable > vars = new ArrayList < Variable > ();
+		ArrayList < Label > labels = new ArrayList < Label > ();
+		for ( ParsedLine line : lines ) {
+			Atom first = line.getAtomAt(0);
+			if ( first instanceof Variable ) vars.add((Variable) first);
+			if ( first instanceof Label ) labels.add((Label) first);
+		}
+		seg.defSymbols(vars,labels,byteSize());
+	}
+	
+}
@@ -0,0 +1,31 @@
+package translator.termworks.peephole;
+
+import translator.table.tablecomponents.reserved.Command;
+import translator.termworks.syntax.operands.MemoryOperand;
+import translator.termworks.syntax.operands.Operand;
+
+// mov m,r which is overwritten by next mov of the same size into the same memory.
+// Store changes no register, so the same operand text addresses the same memory.
+public class DeadStoreRule implements PeepholeRule {
+
+	@Override
+	public String getName() {
+		return "dead-store";
+	}
+
+	@Override
+	public boolean isRedundant(PeepholeWindow window,int index) {
+		int next = window.nextCommand(index);
+		if ( next == -1 || !isStore(window.commandAt(index)) || !isStore(window.commandAt(next)) )
+			return false;
+		Operand dest = window.operandsAt(index).get(0);
+		Operand nextDest = window.operandsAt(next).get(0);
+		return dest instanceof MemoryOperand && nextDest instanceof MemoryOperand
+				&& dest.getOperandKind() == nextDest.getOperandKind()
+				&& dest.getName().equals(nextDest.getName());
+	}
+
+	private static boolean isStore(Command cmd) {
+		return cmd != null && cmd.getName().equals("mov");
+	}
+}
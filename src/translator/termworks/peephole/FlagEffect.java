@@ -0,0 +1,32 @@
+package translator.termworks.peephole;
+
+import translator.table.tablecomponents.reserved.Command;
+
+// Effect of commands on arithmetic flags. Commands which leave flags undefined count as writing them,
+// commands missing here are taken as reading them, so no rewrite depends on them.
+enum FlagEffect {
+	NONE,		// mov, sti, jmp
+	READS,		// adc, jae, read before they are written
+	WRITES;		// or, and, test, mul, div
+
+	static FlagEffect of(Command cmd) {
+		switch ( cmd.getName() ) {
+			case "mov":
+			case "sti":
+			case "jmp":
+				return NONE;
+			case "or":
+			case "and":
+			case "test":
+			case "mul":
+			case "div":
+				return WRITES;
+			default:
+				return READS;
+		}
+	}
+
+	static boolean leavesBlock(Command cmd) {
+		return cmd.getName().equals("jmp") || cmd.getName().equals("jae");
+	}
+}
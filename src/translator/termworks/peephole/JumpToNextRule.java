@@ -0,0 +1,25 @@
+package translator.termworks.peephole;
+
+import java.util.ArrayList;
+
+import translator.table.tablecomponents.reserved.Command;
+import translator.termworks.syntax.operands.Operand;
+import translator.termworks.syntax.operands.Relative;
+
+// jmp to label which directly follows it goes where execution would go anyway
+public class JumpToNextRule implements PeepholeRule {
+
+	@Override
+	public String getName() {
+		return "jump-to-next";
+	}
+
+	@Override
+	public boolean isRedundant(PeepholeWindow window,int index) {
+		Command cmd = window.commandAt(index);
+		if ( cmd == null || !cmd.getName().equals("jmp") ) return false;
+		ArrayList < Operand > operands = window.operandsAt(index);
+		return operands.size() == 1 && operands.get(0) instanceof Relative
+				&& window.labelsAfter(index).contains(((Relative) operands.get(0)).getTarget());
+	}
+}
@@ -0,0 +1,27 @@
+package translator.termworks.peephole;
+
+import java.util.ArrayList;
+
+import translator.table.tablecomponents.reserved.Command;
+import translator.termworks.syntax.operands.AbsoluteExpr;
+import translator.termworks.syntax.operands.Operand;
+import translator.termworks.syntax.operands.RegisterOperand;
+
+// or r,0 keeps register as it is, only flags are changed, so it is dropped when nobody reads them
+public class OrZeroRule implements PeepholeRule {
+
+	@Override
+	public String getName() {
+		return "or-zero";
+	}
+
+	@Override
+	public boolean isRedundant(PeepholeWindow window,int index) {
+		Command cmd = window.commandAt(index);
+		if ( cmd == null || !cmd.getName().equals("or") ) return false;
+		ArrayList < Operand > operands = window.operandsAt(index);
+		return operands.size() == 2 && operands.get(0) instanceof RegisterOperand
+				&& operands.get(1) instanceof AbsoluteExpr && ((AbsoluteExpr) operands.get(1)).value() == 0
+				&& !window.areFlagsLive(index);
+	}
+}
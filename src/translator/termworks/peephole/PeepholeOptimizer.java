@@ -0,0 +1,63 @@
+package translator.termworks.peephole;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import translator.Printable;
+import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.userdefined.Label;
+
+// Drops redundant commands from term before layout, so offsets and encoding see only kept ones.
+// Label of dropped command stays as line of its own. Rules are applied until none of them matches,
+// since dropping one command can make the one before it redundant.
+public class PeepholeOptimizer extends Printable {
+	private List < PeepholeRule > rules;
+	private ArrayList < String > rewrites = new ArrayList < String > ();
+
+	public PeepholeOptimizer(List < PeepholeRule > rules) {
+		this.rules = rules;
+	}
+
+	public static List < PeepholeRule > defaultRules() {
+		return Arrays.asList(new DeadStoreRule(),new OrZeroRule(),new JumpToNextRule());
+	}
+
+	public void optimize(ArrayList < ParsedLine > term) {
+		PeepholeWindow window = new PeepholeWindow(term);
+		boolean changed = true;
+		while ( changed ) {
+			changed = false;
+			for ( int i = 0; i < term.size(); i++ ) {
+				if ( window.commandAt(i) == null ) continue;
+				PeepholeRule rule = findRule(window,i);
+				if ( rule == null ) continue;
+
+				ParsedLine line = term.get(i);
+				rewrites.add(String.format("%-6d%-14s%s",line.getLineNumb(),rule.getName(),line.toString().trim()));
+				if ( line.getAtomAt(0) instanceof Label )
+					term.set(i,new ParsedLine(line,line.subArray(0,1)));
+				else
+					term.remove(i--);
+				changed = true;
+			}
+		}
+	}
+
+	private PeepholeRule findRule(PeepholeWindow window,int index) {
+		for ( PeepholeRule rule : rules )
+			if ( rule.isRedundant(window,index) )
+				return rule;
+		return null;
+	}
+
+	@Override
+	public void genOutput(PrintWriter writer) {
+		writer.println("Peephole rewrites : " + rewrites.size());
+		writer.printf("\t%-6s%-14s%s\n","line","rule","dropped command");
+		for ( String rewrite : rewrites )
+			writer.println("\t" + rewrite);
+	}
+
+}
@@ -0,0 +1,10 @@
+package translator.termworks.peephole;
+
+// Rule of peephole pass. Rule looks at one command of the window and decides
+// if it can be dropped without changing what program does.
+public interface PeepholeRule {
+
+	String getName();
+
+	boolean isRedundant(PeepholeWindow window,int index);
+}
@@ -0,0 +1,83 @@
+package translator.termworks.peephole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
+import translator.table.tablecomponents.reserved.Command;
+import translator.table.tablecomponents.userdefined.Label;
+import translator.termworks.syntax.operands.Operand;
+
+// View of term which rules look through, lines are addressed by index in term.
+// Flow is followed only inside straight line code, anything unknown is taken as the worst case.
+public class PeepholeWindow {
+	private List < ParsedLine > term;
+
+	PeepholeWindow(List < ParsedLine > term) {
+		this.term = term;
+	}
+
+	public int size() {
+		return term.size();
+	}
+
+	public ParsedLine lineAt(int index) {
+		return term.get(index);
+	}
+
+	public Command commandAt(int index) {
+		int cmdIndx = term.get(index).firstIndexOf(AtomType.Command);
+		return ( cmdIndx == -1 )?(null):((Command) term.get(index).getAtomAt(cmdIndx));
+	}
+
+	public ArrayList < Operand > operandsAt(int index) {
+		ParsedLine line = term.get(index);
+		ArrayList < Operand > operands = new ArrayList < Operand > ();
+		Atom.castCopy(operands,line.subArray(line.firstIndexOf(AtomType.Command) + 1));
+		return operands;
+	}
+
+	private boolean isLabelOnly(int index) {
+		return term.get(index).atomsSize() == 1 && term.get(index).getAtomAt(0) instanceof Label;
+	}
+
+	// next command which is executed right after the one at index, when nothing jumps,
+	// -1 if anything but labels lies between
+	public int nextCommand(int index) {
+		for ( int i = index + 1; i < term.size(); i++ ) {
+			if ( isLabelOnly(i) ) continue;
+			return ( commandAt(i) != null )?(i):(-1);
+		}
+		return -1;
+	}
+
+	// labels which mark the place right after command at index
+	public ArrayList < Label > labelsAfter(int index) {
+		ArrayList < Label > labels = new ArrayList < Label > ();
+		for ( int i = index + 1; i < term.size(); i++ ) {
+			Atom first = term.get(i).getAtomAt(0);
+			if ( first instanceof Label ) labels.add((Label) first);
+			if ( !isLabelOnly(i) ) break;
+		}
+		return labels;
+	}
+
+	// flags set by command at index are live if some command can read them before they are set again,
+	// label is a join point and jump leaves straight line code, so flags stay live there
+	public boolean areFlagsLive(int index) {
+		for ( int i = index + 1; i < term.size(); i++ ) {
+			if ( term.get(i).getAtomAt(0) instanceof Label ) return true;
+			Command cmd = commandAt(i);
+			if ( cmd == null ) return true;
+			switch ( FlagEffect.of(cmd) ) {
+				case READS:		return true;
+				case WRITES:	return false;
+				case NONE:		break;
+			}
+			if ( FlagEffect.leavesBlock(cmd) ) return true;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,152 @@
+package translator.termworks.strip;
+
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import translator.Printable;
+import translator.lexer.ParsedLine;
+import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
+import translator.table.tablecomponents.reserved.Command;
+import translator.table.tablecomponents.userdefined.Label;
+import translator.table.tablecomponents.userdefined.Segment;
+import translator.table.tablecomponents.userdefined.Variable;
+import translator.termworks.TermIterator;
+import translator.termworks.generating.ListingGenerator;
+import translator.termworks.layout.SegmentLayout;
+import translator.termworks.syntax.operands.MemoryOperand;
+import translator.termworks.syntax.operands.Relative;
+
+// Drops commands which can't be reached from entry point named by END and variables
+// which no kept command refers to, term is laid out again by the caller.
+// Code is walked from entry label through falling through and jumps, label which is used
+// not only as jump target is taken as entry too. Jump without known target keeps all code.
+public class DeadCodeStripper extends Printable {
+	private ArrayList < String > dropped = new ArrayList < String > ();
+	private LinkedHashMap < Segment, int[] > sizes = new LinkedHashMap < Segment, int[] > ();	// before and after stripping
+
+	public void strip(ArrayList < ParsedLine > term,Label entry,ArrayList < SegmentLayout > layouts) {
+		recordSizes(layouts,0);
+		boolean[] reachable = reachableLines(term,entry);
+		HashSet < Segment > codeSegments = new HashSet < Segment > ();
+		HashSet < Variable > referenced = new HashSet < Variable > ();
+		Segment seg = null;
+		for ( int i = 0; i < term.size(); i++ ) {
+			ParsedLine line = term.get(i);
+			if ( line.matches(TermIterator.defSegEndsPattern) ) seg = (Segment) line.getAtomAt(0);
+			if ( line.firstIndexOf(AtomType.Command) == -1 ) continue;
+			codeSegments.add(seg);
+			if ( reachable[i] )
+				for ( Atom atom : line.getAtoms() )
+					if ( atom instanceof MemoryOperand && ((MemoryOperand) atom).getDirectVariable() != null )
+						referenced.add(((MemoryOperand) atom).getDirectVariable());
+		}
+
+		ArrayList < ParsedLine > kept = new ArrayList < ParsedLine > (term.size());
+		seg = null;
+		for ( int i = 0; i < term.size(); i++ ) {
+			ParsedLine line = term.get(i);
+			Atom first = line.getAtomAt(0);
+			if ( line.matches(TermIterator.defSegEndsPattern) ) seg = (Segment) first;
+			if ( !reachable[i] && ( line.firstIndexOf(AtomType.Command) != -1
+								|| first instanceof Label && line.atomsSize() == 1 && codeSegments.contains(seg) ) ) {
+				drop(line,"unreachable");
+				continue;
+			}
+			if ( first instanceof Variable && !referenced.contains(first) ) {
+				drop(line,"unused");
+				continue;
+			}
+			kept.add(line);
+		}
+		term.clear();
+		term.addAll(kept);
+	}
+
+	public void sizesAfter(ArrayList < SegmentLayout > layouts) {
+		recordSizes(layouts,1);
+	}
+
+	private boolean[] reachableLines(ArrayList < ParsedLine > term,Label entry) {
+		boolean[] reachable = new boolean[term.size()];
+		HashMap < Label, Integer > labelIndexes = new HashMap < Label, Integer > ();
+		HashSet < Label > jumpTargets = new HashSet < Label > ();
+		for ( int i = 0; i < term.size(); i++ ) {
+			if ( term.get(i).getAtomAt(0) instanceof Label )
+				labelIndexes.put((Label) term.get(i).getAtomAt(0),i);
+			Relative rel = relativeOf(term.get(i));
+			if ( rel != null ) jumpTargets.add(rel.getTarget());
+		}
+		if ( entry == null || !labelIndexes.containsKey(entry) ) {
+			Arrays.fill(reachable,true);
+			return reachable;
+		}
+
+		ArrayDeque < Integer > worklist = new ArrayDeque < Integer > ();
+		worklist.add(labelIndexes.get(entry));
+		for ( Label label : labelIndexes.keySet() )
+			if ( label.isIdentUsed() && !jumpTargets.contains(label) )
+				worklist.add(labelIndexes.get(label));
+
+		while ( !worklist.isEmpty() ) {
+			for ( int i = worklist.poll(); i < term.size() && !reachable[i]; i++ ) {
+				ParsedLine line = term.get(i);
+				if ( line.matches(TermIterator.defSegEndsPattern) ) break;
+				reachable[i] = true;
+				int cmdIndx = line.firstIndexOf(AtomType.Command);
+				if ( cmdIndx == -1 ) continue;
+
+				Relative rel = relativeOf(line);
+				if ( rel != null && labelIndexes.containsKey(rel.getTarget()) )
+					worklist.add(labelIndexes.get(rel.getTarget()));
+				if ( ((Command) line.getAtomAt(cmdIndx)).getName().equals("jmp") ) {
+					if ( rel != null ) break;
+					Arrays.fill(reachable,true);
+					return reachable;
+				}
+			}
+		}
+		return reachable;
+	}
+
+	private static Relative relativeOf(ParsedLine line) {
+		for ( Atom atom : line.getAtoms() )
+			if ( atom instanceof Relative )
+				return (Relative) atom;
+		return null;
+	}
+
+	private void drop(ParsedLine line,String reason) {
+		dropped.add(String.format("%-6d%-14s%s",line.getLineNumb(),reason,line.toString().trim()));
+	}
+
+	private void recordSizes(ArrayList < SegmentLayout > layouts,int column) {
+		for ( SegmentLayout layout : layouts ) {
+			if ( !sizes.containsKey(layout.getSegment()) )
+				sizes.put(layout.getSegment(),new int[2]);
+			sizes.get(layout.getSegment())[column] += layout.byteSize();
+		}
+	}
+
+	@Override
+	public void genOutput(PrintWriter writer) {
+		writer.println("Stripped lines : " + dropped.size());
+		writer.printf("\t%-6s%-14s%s\n","line","reason","dropped line");
+		for ( String line : dropped )
+			writer.println("\t" + line);
+		writer.println();
+		writer.println("Segments : ");
+		writer.printf("\t%-16s %-8s%s\n","name","before","after");
+		for ( Entry < Segment, int[] > entry : sizes.entrySet() )
+			writer.printf("\t%-16s %-8s%s\n",entry.getKey().getName().toUpperCase(),
+								ListingGenerator.buildDefaultHexRep(entry.getValue()[0],2),
+								ListingGenerator.buildDefaultHexRep(entry.getValue()[1],2));
+	}
+
+}
@@ -2,6 +2,7 @@ package translator.termworks.syntax;
 
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.List;
 
 import translator.lexer.ParsedLine;
 import translator.table.SymbolTable;
@@ -12,6 +13,7 @@ import translator.table.tablecomponents.userdefined.Identifier;
 import translator.table.tablecomponents.userdefined.Segment;
 import translator.table.tablecomponents.userdefined.Variable;
 import translator.termworks.TermIterator;
+import translator.termworks.layout.Alignment;
 import translator.termworks.syntax.operands.Operand;
 
 public class Parser extends TermIterator {
@@ -24,7 +26,7 @@ public class Parser extends TermIterator {
 		Analyze(lexerProduct);
 	}
 
-	public synchronized ArrayList<ParsedLine> getTerm() {
+	public ArrayList<ParsedLine> getTerm() {
 		return term;
 	}
 	
@@ -68,6 +70,10 @@ public class Parser extends TermIterator {
 			return;
 		}
 		
+		if ( Alignment.isAlignLine(matchedLine) ) {
+			term.add(alignDirectiveProcessing(matchedLine));
+			return;
+		}
 		
 		if ( matchedLine.strMatches("^\\s*end.*$") ) {
 			term.add(endDirectiveProcessing(matchedLine));
@@ -87,20 +93,7 @@ public class Parser extends TermIterator {
 	}
 	
 	private ArrayList < Operand > convertToOperands(ArrayList < Atom > from) {
-		ArrayList < Operand > retLst = new ArrayList < Operand > ();
-		int prevSeparator = 0 , i = 0;
-
-		while ( i < from.size() ) {
-			if (from.get(i).getType() == AtomType.Separator ) {
-				retLst.add(Operand.makeOperand(new ArrayList < Atom >(from.subList(prevSeparator,i)) ));
-				prevSeparator = i + 1;
-			}
-			i++;
-		}
-		if ( !( i == 0 && prevSeparator == 0 ) )  
-			retLst.add(Operand.makeOperand(new ArrayList < Atom >(from.subList(prevSeparator,i))) );
-		
-		return retLst;
+		return Operand.makeOperands(from);
 	}
 	
 	private ParsedLine defDirectiveProcessing(ParsedLine lexerLine) {
@@ -129,6 +122,13 @@ public class Parser extends TermIterator {
 		return new ParsedLine(lexerLine,atoms);
 	}
 		
+	private ParsedLine alignDirectiveProcessing(ParsedLine lexerLine) {
+		ArrayList < Atom > atoms = new ArrayList < Atom > () ;
+		atoms.add(lexerLine.getAtomAt(0));
+		atoms.addAll(convertToOperands(lexerLine.subArray(1)));
+		return new ParsedLine(lexerLine,atoms);
+	}
+	
 	private ParsedLine endDirectiveProcessing(ParsedLine lexerLine) {
 		isEndProcessed = true;
 		ArrayList < Atom > atoms = new ArrayList < Atom > () ;		
@@ -160,7 +160,7 @@ public class Parser extends TermIterator {
 	
 	private void prnLineStructureInfo(PrintWriter writer,ParsedLine line) {
 		writer.printf("%-3s%-5d ","|",line.getLineNumb() );
-		ArrayList < Atom > atoms = line.getAtoms();
+		List < Atom > atoms = line.getAtoms();
 			int tokenNumb = 1;
 		int iter = 0;
 		if ( atoms.get(iter) instanceof Identifier) {
@@ -1,6 +1,7 @@
 package translator.termworks.syntax.operands;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.TreeMap;
 
 import translator.exc.*;
@@ -8,7 +9,9 @@ import translator.table.OperandKind;
 import translator.table.SymbolTable;
 import translator.table.tablecomponents.*;
 import translator.table.tablecomponents.reserved.operators.Operator;
+import translator.table.tablecomponents.reserved.operators.OperatorDescriptor;
 import translator.table.tablecomponents.userdefined.Constant;
+import translator.table.tablecomponents.userdefined.StringConstant;
 
 public class AbsoluteExpr extends Operand {
 	
@@ -34,13 +37,38 @@ public class AbsoluteExpr extends Operand {
 	}
 	
 	public AbsoluteExpr(ArrayList<Atom> atoms) {
-		super(atoms);
+		super(atoms,AtomType.AbsExpr);
 		unfixedTokenNumb = atoms.size();
 	}
 	
 	public int calcSizeInBytes() {
 		return new AbsoluteExpr(unaryFix(operandAtoms)).evalAbsoluteExpr().getSizeInBytes();
 	}
+	
+	public long value() {
+		return new AbsoluteExpr(unaryFix(operandAtoms)).evalAbsoluteExpr().GetVaue();
+	}
+	
+	// string literal initializes bytes char by char, any other expression is one element
+	public boolean isCharSequence(int elemSize) {
+		return elemSize == 1 && operandAtoms.size() == 1 && operandAtoms.get(0) instanceof StringConstant;
+	}
+	
+	public int elementsNumb(int elemSize) {
+		return ( isCharSequence(elemSize) )?(((StringConstant) operandAtoms.get(0)).length()):(1);
+	}
+	
+	// values of elements are written into dest from pos, number of written ones is returned
+	public int values(long[] dest,int pos,int elemSize) {
+		if ( !isCharSequence(elemSize) ) {
+			dest[pos] = value();
+			return 1;
+		}
+		String chars = ((StringConstant) operandAtoms.get(0)).getChars();
+		for ( int i = 0; i < chars.length(); i++ ) 
+			dest[pos + i] = chars.charAt(i) & 0xFF;
+		return chars.length();
+	}
 			
 	private static ArrayList < Atom > unaryFix(ArrayList < Atom > absoluteExpr ) {
 		ArrayList < Atom > fixedAbsExpr = new ArrayList < Atom > () ;
@@ -71,63 +99,55 @@ public class AbsoluteExpr extends Operand {
 	public Constant evalAbsoluteExpr (){
 		if ( isAbsoluteTerm() ) 
 			return (Constant) operandAtoms.get(0);
-		int lowestPrOpPos = posLowPriority();
-		Operator foundOperator = (Operator) operandAtoms.get(lowestPrOpPos);
-		Operand rightOp = new AbsoluteExpr(new ArrayList < Atom >(operandAtoms.subList(lowestPrOpPos + 1,operandAtoms.size())) );
-		if ( foundOperator.isUnary() ) {
-			return ((AbsoluteExpr) foundOperator.eval(rightOp)).evalAbsoluteExpr();
-		} else {
-			Operand leftOp = new AbsoluteExpr(new ArrayList < Atom >(operandAtoms.subList(0,lowestPrOpPos)));
-			return (( AbsoluteExpr) foundOperator.eval(leftOp,rightOp)).evalAbsoluteExpr();
+		return new Constant(evalRange(operandAtoms,0,operandAtoms.size()),10);
+	}
+	
+	// value of atoms from start to end, the loosest operator out of parentheses is applied last,
+	// nothing but the result is allocated
+	private static long evalRange(List < Atom > atoms,int start,int end) {
+		int lowestPrOpPos = posLowPriority(atoms,start,end);
+		while ( lowestPrOpPos == -1 && end - start > 2 && isOpenParenthesis(atoms.get(start)) ) {
+			start++;
+			end--;
+			lowestPrOpPos = posLowPriority(atoms,start,end);
 		}
+		if ( lowestPrOpPos == -1 ) 
+			return ((Constant) atoms.get(start)).GetVaue();
+		Operator foundOperator = (Operator) atoms.get(lowestPrOpPos);
+		if ( foundOperator.isUnary() ) 
+			return foundOperator.eval(0,evalRange(atoms,lowestPrOpPos + 1,end));
+		long left = evalRange(atoms,start,lowestPrOpPos);
+		return foundOperator.eval(left,evalRange(atoms,lowestPrOpPos + 1,end));
 	}
 	
 	private boolean isAbsoluteTerm() {
 		return operandAtoms.size() == 1 && operandAtoms.get(0) instanceof Constant;
 	}
 	
-	private boolean isParenthesisRemoveNeeded() {
-		return  operandAtoms.get(0).getName() == OParenthesis &&
-				operandAtoms.get(operandAtoms.size() - 1 ).getName() == CParenthesis;
+	private static boolean isOpenParenthesis(Atom atom) {
+		return atom instanceof Operator && ((Operator) atom).getDescriptor() == OperatorDescriptor.OPEN;
 	}
 	
-	private void removeParenthesis() {
-		operandAtoms.remove(0);
-		operandAtoms.remove(operandAtoms.size() - 1);
+	private static boolean isCloseParenthesis(Atom atom) {
+		return atom instanceof Operator && ((Operator) atom).getDescriptor() == OperatorDescriptor.CLOSE;
 	}
 		
-	private int posLowPriority() {
+	private static int posLowPriority(List < Atom > atoms,int start,int end) {
 		int lowestPr = 0;
 		int posLowestPr = -1;
-		int i = 0;
 		int openClsCounter = 0;
 						
-		for (Atom atom : operandAtoms ) {
-			try { 
-				if ( atom instanceof Operator ) {	
-					if ( OParenthesis.equals(atom.getName()) ) {
-						openClsCounter++;
-						continue;
-					}
-					if ( CParenthesis.equals(atom.getName()) ) {
-						openClsCounter--;
-						continue;
-					}
-					if ( openClsCounter == 0 && ((Operator) atom).getPriority() >= lowestPr ) {
-						lowestPr = ((Operator) atom).getPriority();
-						posLowestPr = i;
-					}
-					
-				}
-			} finally {
-				i++;				
+		for ( int i = start; i < end; i++ ) {
+			Atom atom = atoms.get(i);
+			if ( isOpenParenthesis(atom) ) 
+				openClsCounter++;
+			else if ( isCloseParenthesis(atom) ) 
+				openClsCounter--;
+			else if ( openClsCounter == 0 && atom instanceof Operator && ((Operator) atom).getPriority() >= lowestPr ) {
+				lowestPr = ((Operator) atom).getPriority();
+				posLowestPr = i;
 			}
 		}
-		if ( posLowestPr == -1) {
-			if ( isParenthesisRemoveNeeded() ) 
-				removeParenthesis();
-			return posLowPriority();
-		}
 		return posLowestPr;
 	}
 	
@@ -180,9 +200,4 @@ public class AbsoluteExpr extends Operand {
 		return operKind;
 	}
 
-	@Override
-	public AtomType getType() {
-		return AtomType.AbsExpr;
-	}
-	
 }
@@ -0,0 +1,96 @@
+package translator.termworks.syntax.operands;
+
+import java.util.ArrayList;
+
+import translator.table.OperandKind;
+import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
+
+// count DUP ( initializer ), initializer can be duplication itself.
+// Duplicated data is never expanded, only count and initializer are kept.
+public class DupOperand extends Operand {
+	private final static String DupOperator = "dup";
+	private final static String OParenthesis = "(";
+	private final static String CParenthesis = ")";
+	
+	private AbsoluteExpr count;
+	private ArrayList < Operand > initializer;
+	
+	public DupOperand(ArrayList < Atom > atoms) {
+		super(atoms,AtomType.DupExpr);
+		int dupPos = findDup(atoms);
+		count = new AbsoluteExpr(new ArrayList < Atom > (atoms.subList(0,dupPos)));
+		initializer = Operand.makeOperands(new ArrayList < Atom > (atoms.subList(dupPos + 2,atoms.size() - 1)));
+	}
+	
+	public static boolean isDupOperand(ArrayList < Atom > operandAtoms) {
+		int dupPos = findDup(operandAtoms);
+		return dupPos > 0 && dupPos + 2 < operandAtoms.size() 
+				&& operandAtoms.get(dupPos + 1).getName().equals(OParenthesis)
+				&& operandAtoms.get(operandAtoms.size() - 1).getName().equals(CParenthesis);
+	}
+	
+	// first duplication outside of parentheses
+	private static int findDup(ArrayList < Atom > atoms) {
+		int depth = 0;
+		for ( int i = 0; i < atoms.size(); i++ ) {
+			String name = atoms.get(i).getName();
+			if ( name.equals(OParenthesis) ) depth++;
+			else if ( name.equals(CParenthesis) ) depth--;
+			else if ( depth == 0 && atoms.get(i).getType() == AtomType.Operator && name.equals(DupOperator) ) 
+				return i;
+		}
+		return -1;
+	}
+	
+	public AbsoluteExpr getCount() {
+		return count;
+	}
+	
+	public ArrayList < Operand > getInitializer() {
+		return initializer;
+	}
+	
+	public long countValue() {
+		return count.value();
+	}
+	
+	public void calc() {
+		count.calc();
+		for ( Operand operand : initializer ) {
+			if ( operand instanceof AbsoluteExpr ) ((AbsoluteExpr) operand).calc();
+			if ( operand instanceof DupOperand ) ((DupOperand) operand).calc();
+		}
+	}
+	
+	// number of elements defined by initializers, duplications are multiplied out,
+	// ArithmeticException is thrown if number doesn't fit into long
+	public static long elementsNumb(ArrayList < ? extends Atom > initializers,int elemSize) {
+		long numb = 0;
+		for ( Atom atom : initializers ) {
+			if ( atom instanceof DupOperand ) 
+				numb = Math.addExact(numb,Math.multiplyExact(((DupOperand) atom).countValue(),
+															 elementsNumb(((DupOperand) atom).initializer,elemSize)));
+			else if ( atom instanceof AbsoluteExpr ) 
+				numb = Math.addExact(numb,((AbsoluteExpr) atom).elementsNumb(elemSize));
+			else 
+				numb = Math.addExact(numb,1);
+		}
+		return numb;
+	}
+	
+	// the widest value among duplicated ones
+	@Override
+	public int calcSizeInBytes() {
+		int size = 0;
+		for ( Operand operand : initializer ) 
+			size = Math.max(size,operand.calcSizeInBytes());
+		return size;
+	}
+
+	@Override
+	public OperandKind getOperandKind() {
+		return null;
+	}
+
+}
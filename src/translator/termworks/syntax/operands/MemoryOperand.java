@@ -46,7 +46,7 @@ public class MemoryOperand extends Operand {
 	private static Pattern directAddrWithPtrRegex = Pattern.compile("^" + directAddressingWithPtr + "$");
 	
 	public MemoryOperand(ArrayList<Atom> atoms) {
-		super(atoms);
+		super(atoms,AtomType.Memory);
 		String checkOperand = buildStringFromAtoms(operandAtoms);
 		Matcher sumBaseIndexWith = sumBaseIndexAddrWithPtrP.matcher(checkOperand);
 		Matcher sumBaseIndexWithout = sumBaseIndexAddrWithOutPtrP.matcher(checkOperand);
@@ -119,14 +119,19 @@ public class MemoryOperand extends Operand {
 				
 		return sumBaseIndexWith.matches() || sumBaseIndexWithout.matches() || 
 				 doubleBaseIndexWith.matches() || doubleBaseIndexWithout.matches() ||
-				(directWith.matches() && ((Identifier) operandAtoms.get(4)).getType() == AtomType.Variable ) || 
-				(directWithout.matches() && ((Identifier) operandAtoms.get(2)).getType() == AtomType.Variable ) ;
+				(directWith.matches() && operandAtoms.get(4).getType() == AtomType.Variable ) || 
+				(directWithout.matches() && operandAtoms.get(2).getType() == AtomType.Variable ) ;
 	}
 		
 	public int getDirectOffset() {
 		return direct.getOffset();
 	}
 	
+	// variable of direct addressing, null when there is none
+	public Variable getDirectVariable() {
+		return direct;
+	}
+	
 	public int getOffsetInComand() {	
 		return (int) offsetInCommand.GetVaue();
 	}
@@ -191,11 +196,6 @@ public class MemoryOperand extends Operand {
 			throw new BaseIndexCombinationNotAllowed();
 	}
 
-	@Override
-	public AtomType getType() {
-		return AtomType.Memory;
-	}
-	
 	public Register getStandardSegReg() {
 		if (base != null && (base.equals(SymbolTable.getReserved("bp")) || base.equals(SymbolTable.getReserved("ebp")) 
 							|| base.equals(SymbolTable.getReserved("esp")) ))
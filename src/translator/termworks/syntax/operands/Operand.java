@@ -4,6 +4,7 @@ import java.util.ArrayList;
 
 import translator.table.OperandKind;
 import translator.table.tablecomponents.Atom;
+import translator.table.tablecomponents.AtomType;
 
 public abstract class Operand extends Atom {
 	protected ArrayList < Atom > operandAtoms;
@@ -12,8 +13,9 @@ public abstract class Operand extends Atom {
 	public abstract OperandKind getOperandKind() ;
 	public abstract int calcSizeInBytes() ;
 
-	public Operand(ArrayList < Atom > atoms) {
-		super(buildStringFromAtoms(atoms));
+	// position of operand is the one of its first atom
+	public Operand(ArrayList < Atom > atoms,AtomType type) {
+		super(buildStringFromAtoms(atoms),type,( atoms.size() != 0 )?(atoms.get(0)):(null));
 		operandAtoms = atoms;
 	}
 	
@@ -26,6 +28,8 @@ public abstract class Operand extends Atom {
 	}
 		
 	public static Operand makeOperand(ArrayList < Atom > operandAtoms) {
+		if ( DupOperand.isDupOperand(operandAtoms) )
+			return new DupOperand(operandAtoms);
 		if ( AbsoluteExpr.isAbsoluteExpr(operandAtoms) )
 			return new AbsoluteExpr(operandAtoms);
 		if ( RegisterOperand.isRegisterOperand(operandAtoms))
@@ -38,15 +42,29 @@ public abstract class Operand extends Atom {
 		return new UndefinedOperand(operandAtoms);
 	}
 
+	// operands are separated by commas, commas inside of parentheses belong to operand
+	public static ArrayList < Operand > makeOperands(ArrayList < Atom > from) {
+		ArrayList < Operand > retLst = new ArrayList < Operand > ();
+		int prevSeparator = 0 , i = 0 , depth = 0;
+
+		while ( i < from.size() ) {
+			String name = from.get(i).getName();
+			if ( name.equals("(") ) depth++;
+			if ( name.equals(")") ) depth--;
+			if ( depth == 0 && from.get(i).getType() == AtomType.Separator ) {
+				retLst.add(makeOperand(new ArrayList < Atom >(from.subList(prevSeparator,i)) ));
+				prevSeparator = i + 1;
+			}
+			i++;
+		}
+		if ( !( i == 0 && prevSeparator == 0 ) )  
+			retLst.add(makeOperand(new ArrayList < Atom >(from.subList(prevSeparator,i))) );
+		
+		return retLst;
+	}
+
 	public boolean isMissing() {
 		return operandAtoms.size() == 0;
 	}
 	
-    @Override
-	public Atom searchedPosAtom() {
-		if ( operandAtoms.size() != 0 )
-			return  operandAtoms.get(0);
-		return null;
-    }
-    
 }
@@ -11,7 +11,7 @@ public class RegisterOperand extends Operand {
 	
 	
 	public RegisterOperand(ArrayList<Atom> atoms) {
-		super(atoms);
+		super(atoms,AtomType.RegOperand);
 		operKind = OperandKind.whatKind(OperandKind.REGISTER, ((Register) atoms.get(0)).GetByteSize() );
 	}
 
@@ -37,9 +37,4 @@ public class RegisterOperand extends Operand {
 		return ((Register) operandAtoms.get(0)).GetByteSize();
 	}
 		
-	@Override
-	public AtomType getType() {
-		return AtomType.RegOperand;
-	}
-		
 }
@@ -5,12 +5,15 @@ import java.util.ArrayList;
 import translator.table.OperandKind;
 import translator.table.tablecomponents.Atom;
 import translator.table.tablecomponents.AtomType;
+import translator.table.tablecomponents.userdefined.Label;
 
 public class Relative extends Operand {
+	public final static int SHORT_SIZE = 1;
+	private int displacementSize;
 
 	public Relative(ArrayList<Atom> atoms) {
-		super(atoms);
-		operKind = OperandKind.whatKind(OperandKind.RELATIVE,1);
+		super(atoms,AtomType.RelativeOperand);
+		setDisplacementSize(SHORT_SIZE);
 	}
 
 	@Override
@@ -20,12 +23,25 @@ public class Relative extends Operand {
 
 	@Override
 	public int calcSizeInBytes() {
-		return 0;
+		return displacementSize;
 	}
 
-	@Override
-	public AtomType getType() {
-		return AtomType.RelativeOperand;
+	// every branch starts short ( rel8 ) and can be lengthened by relaxation
+	public void setDisplacementSize(int byteSize) {
+		displacementSize = byteSize;
+		operKind = OperandKind.whatKind(OperandKind.RELATIVE,byteSize);
+	}
+
+	public boolean isShort() {
+		return displacementSize == SHORT_SIZE;
+	}
+
+	public Label getTarget() {
+		return (Label) operandAtoms.get(0);
+	}
+
+	public static boolean isInShortRange(int displacement) {
+		return displacement >= Byte.MIN_VALUE && displacement <= Byte.MAX_VALUE;
 	}
 
 	public static boolean isRelative(ArrayList<Atom> operandAtoms) {
@@ -8,27 +8,34 @@ import translator.table.SymbolTable;
 import translator.table.tablecomponents.Atom;
 import translator.table.tablecomponents.AtomType;
 import translator.table.tablecomponents.userdefined.Identifier;
+import translator.table.tablecomponents.userdefined.NamedConstant;
 
 public class UndefinedOperand extends Operand {
 
 	public UndefinedOperand(ArrayList<Atom> atoms) {
-		super(atoms);
+		super(atoms,null);
 	}
 
+	// operand isn't changed, new one with symbols found in table is returned
 	public UndefinedOperand updateSymbolsFromTab(SymbolTable symTab) {
-		int i = 0;
+		ArrayList < Atom > updated = new ArrayList < Atom > (operandAtoms.size());
 		for ( Atom atom : operandAtoms ) {
 			if ( atom.getType() == AtomType.Identifier )
-				operandAtoms.set(i, tryUpdate((Identifier) atom,symTab) );
-			i++;
+				updated.add( tryUpdate((Identifier) atom,symTab) );
+			else 
+				updated.add(atom);
 		}
-		return this;
+		return new UndefinedOperand(updated);
 	}
 	
+	// constant defined after its use is lexed as identifier, its value is put in place here
 	private Atom tryUpdate(Identifier ident,SymbolTable symTab) {
-		if ( symTab.Search(ident.getName()) != null)  {
-			((Identifier) symTab.Search(ident.getName())).usageFound();
-			return symTab.Search(ident.getName());
+		Atom found = symTab.Search(ident.getName());
+		if ( found instanceof NamedConstant ) 
+			return found;
+		if ( found instanceof Identifier )  {
+			((Identifier) found).usageFound();
+			return found;
 		}
 		return ident;
 	}
@@ -52,9 +59,4 @@ public class UndefinedOperand extends Operand {
 		return null;
 	}
 
-	@Override
-	public AtomType getType() {
-		return null;
-	}
-
 }
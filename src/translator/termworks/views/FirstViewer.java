@@ -4,11 +4,19 @@ import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Stack;
 
+import translator.Translator;
+import translator.errorhandling.ErrorReporter;
 import translator.lexer.ParsedLine;
 import translator.termworks.TermIterator;
 import translator.termworks.generating.ListingGenerator;
+import translator.termworks.layout.Alignment;
+import translator.termworks.layout.DataReorderer;
+import translator.termworks.layout.OffsetAssigner;
+import translator.termworks.layout.SegmentLayout;
 import translator.termworks.syntax.operands.AbsoluteExpr;
+import translator.termworks.syntax.operands.DupOperand;
 import translator.termworks.syntax.operands.Operand;
+import translator.termworks.syntax.operands.Relative;
 import translator.termworks.syntax.operands.UndefinedOperand;
 import translator.table.SymbolTable;
 import translator.table.tablecomponents.*;
@@ -19,18 +27,30 @@ public class FirstViewer extends TermIterator {
 	private ArrayList < ParsedLine > term;
 	private Segment curProcessSeg;
 	private Stack < UndefinedOperandUpdater >  FixNeededUndefinedOperands;
+	private ArrayList < SegmentLayout > layouts;
+	private DataReorderer reorderer;
+	private ParsedLine endLine;
+	private ErrorReporter reporter;
 	
+	// lines aren't changed in place, updated line replaces the old one in term,
+	// line which isn't kept in term only marks found symbols as used
 	private class UndefinedOperandUpdater {
-		private ArrayList < Atom > lineAtoms;
+		private ParsedLine line;
+		private int termIndex;
 		private int pos;
 		
-		public UndefinedOperandUpdater(ArrayList<Atom> lineAtoms, int pos) {
-			this.lineAtoms = lineAtoms;
+		public UndefinedOperandUpdater(ParsedLine line, int termIndex, int pos) {
+			this.line = line;
+			this.termIndex = termIndex;
 			this.pos = pos;
 		}
 
 		public void update() {
-			lineAtoms.set(pos, Operand.makeOperand( ((UndefinedOperand) lineAtoms.get(pos)).updateSymbolsFromTab(symTab) ));
+			ParsedLine curLine = ( termIndex == -1 )?(line):(term.get(termIndex));
+			ArrayList < Atom > atoms = curLine.subArray(0);
+			atoms.set(pos, Operand.makeOperand( ((UndefinedOperand) atoms.get(pos)).updateSymbolsFromTab(symTab) ));
+			if ( termIndex != -1 ) 
+				term.set(termIndex,calcAbsExprInLine(new ParsedLine(curLine,atoms)));	// constant defined later makes absolute expression
 		}
 		
 	}
@@ -39,25 +59,67 @@ public class FirstViewer extends TermIterator {
 		this.term = new ArrayList < ParsedLine > ();
 		FixNeededUndefinedOperands = new Stack < UndefinedOperandUpdater >();
 		symTab = mainTab;
+		reporter = new ErrorReporter(Translator.errTab);
 	}
 
 	public ArrayList < ParsedLine > getTerm() {
 		return term;
 	}
+	
+	public ArrayList < SegmentLayout > getLayouts() {
+		return layouts;
+	}
+	
+	// pass which has removed or replaced lines of term makes old layouts invalid
+	public void relayout() {
+		layouts = OffsetAssigner.assign(term);
+	}
+	
+	// label named by END, null if there is no such label
+	public Label getEntry() {
+		if ( endLine == null || endLine.atomsSize() < 2 ) return null;
+		Atom operand = endLine.getAtomAt(1);
+		if ( operand instanceof Relative ) 
+			return ((Relative) operand).getTarget();
+		if ( operand instanceof UndefinedOperand ) 
+			for ( Identifier ident : ((UndefinedOperand) operand).findIdentifiers() ) 
+				if ( symTab.Search(ident.getName()) instanceof Label ) 
+					return (Label) symTab.Search(ident.getName());
+		return null;
+	}
 		
 	public void view(ArrayList < ParsedLine > term) {
 		FixNeededUndefinedOperands.clear();
 		iterateOverTerm(term);
 		termUpdate();
+		layouts = OffsetAssigner.assign(this.term);	// instruction lengths are known only after operands were resolved
+		if ( reportOverflows() ) return;
+		if ( !Translator.flags.getReorderSegments().isEmpty() ) {
+			reorderer = new DataReorderer(Translator.flags.getReorderSegments());
+			reorderer.reorder(layouts);
+			layouts = OffsetAssigner.assign(this.term);
+			reorderer.sizesAfter(layouts);
+		}
+	}
+
+	// segment which doesn't fit into its offset size isn't laid out, build is stopped after view
+	private boolean reportOverflows() {
+		boolean isOverflowed = false;
+		for ( SegmentLayout layout : layouts ) 
+			if ( layout.isOverflowed() ) {
+				reporter.reportSegmentTooLarge(layout.getOverflowLine());
+				isOverflowed = true;
+			}
+		return isOverflowed;
 	}
 
 	@Override
 	protected void whenLabelMatched() {
 		Label curLabel = (Label) matchedLine.getAtomAt(0);
 		curLabel.setLineWhereDefined(matchedLine);
-		curProcessSeg.defLabel(curLabel);
 		symTab.AddSymbol( curLabel );
-		term.add(matchedLine);
+		if ( matchedLine.atomsSize() == 1 )
+			term.add(matchedLine);
 	}
 
 	@Override
@@ -79,6 +141,11 @@ public class FirstViewer extends TermIterator {
 			return;
 		}
 
+		if ( Alignment.isAlignLine(matchedLine) ) {
+			term.add( calcAbsExprInLine(matchedLine) );
+			return;
+		}
+
 		if ( matchedLine.strMatches("^\\s*end.*$") ) {
 			endDirectiveProcessing();
 		}	
@@ -86,8 +153,9 @@ public class FirstViewer extends TermIterator {
 	}
 
 	private void endDirectiveProcessing() {
+		endLine = matchedLine;
 		if ( matchedLine.getAtomAt(1) instanceof UndefinedOperand ) 
-			FixNeededUndefinedOperands.push(new UndefinedOperandUpdater(matchedLine.getAtoms(), 1));
+			FixNeededUndefinedOperands.push(new UndefinedOperandUpdater(matchedLine, -1, 1));
 	}
 
 	private void segmentDef() {
@@ -96,30 +164,31 @@ public class FirstViewer extends TermIterator {
 	}
 
 	private void endSegmentProcessing() {
-		matchedLine.getAtoms().set(0,curProcessSeg);
-		term.add(matchedLine);
+		ArrayList < Atom > atoms = matchedLine.subArray(0);
+		atoms.set(0,curProcessSeg);
+		term.add(new ParsedLine(matchedLine,atoms));
 		curProcessSeg = null;
 	}
 
 	private void varDef() {
 		Variable var = (Variable) matchedLine.getAtomAt(0);
 		var.setLineWhereDefined(matchedLine);
-		curProcessSeg.defVariable( var );
 		symTab.AddSymbol( var );
 		term.add( calcAbsExprInLine(matchedLine) );
+		var.setLength(DupOperand.elementsNumb(matchedLine.subArray(2),var.Size()));
 	}
 
 	@Override
 	protected void whenCommandMatched() {
-		findFixNeededUndefinedOperands();
 		term.add(calcAbsExprInLine(matchedLine));		
+		findFixNeededUndefinedOperands(term.size() - 1);
 	}
 	
-	private void findFixNeededUndefinedOperands() {
+	private void findFixNeededUndefinedOperands(int termIndex) {
 		int i = 0;
 		for ( Atom atom : matchedLine.getAtoms() ) {
 			if ( atom instanceof UndefinedOperand ) 
-				FixNeededUndefinedOperands.push(new UndefinedOperandUpdater(matchedLine.getAtoms(),i));
+				FixNeededUndefinedOperands.push(new UndefinedOperandUpdater(matchedLine,termIndex,i));
 			i++;
 		}
 	}
@@ -129,6 +198,9 @@ public class FirstViewer extends TermIterator {
 			if ( atom instanceof AbsoluteExpr ) {
 				((AbsoluteExpr) atom).calc();
 			}
+			if ( atom instanceof DupOperand ) {
+				((DupOperand) atom).calc();
+			}
 		}
 		return line;
 	}
@@ -143,6 +215,7 @@ public class FirstViewer extends TermIterator {
 	public void genOutput(PrintWriter writer) {
 		ArrayList < Segment > allSegments = (ArrayList<Segment>) Atom.castCopy(new ArrayList< Segment >(),symTab.findAll(AtomType.Segment)); 
 		printSegments(writer,allSegments);
+		if ( reorderer != null ) reorderer.genOutput(writer);
 		printSegmentsSymbols(writer,allSegments);
 	}
 	
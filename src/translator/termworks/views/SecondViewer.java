@@ -20,7 +20,7 @@ public class SecondViewer extends TermIterator {
 		iterateOverTerm(term);
 	}
 		
-	public synchronized ArrayList<ParsedLine> getTerm() {
+	public ArrayList<ParsedLine> getTerm() {
 		return term;
 	}
 
@@ -0,0 +1,70 @@
+; alignment : data is padded by zeros, code by no-operations, labels after padding keep right offsets
+
+data segment
+    flag  db 1
+    align 4
+    count dd 0
+    name1 db 'abc'
+    even
+    word1 dw 7
+    align 16
+    table db 3 dup (5)
+data ends
+
+code segment
+begin:
+    mov ds:flag,al
+    align 4
+loop1:
+    or al,1
+    sti
+    align 16
+target:
+    and ax,ds:word1
+    jae loop1           ; backward, over padding
+    even
+    jmp target
+    align 8
+    adc eax,ds:count
+    adc al,ds:table
+    test ds:name1,bl
+    jmp begin
+code ends
+
+; padding shrinks after the last branch is lengthened, so it is computed again after branches settled
+code2 segment
+    jmp far1
+    jmp skip
+skip:
+    align 16
+spin:
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+far1:
+    jmp spin
+    jmp far1
+code2 ends
+end begin
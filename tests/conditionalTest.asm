@@ -0,0 +1,46 @@
+; conditional assembly : nested blocks, ELSE branches and defined names
+; lines of disabled blocks are not lexed, so they may hold anything
+; WIDE can be defined by -define flag
+
+data segment
+    counter dw 0
+if 2 * 3 - 6
+    unused db @#$ not even lexed
+else
+    used db 1
+endif
+ifdef counter
+    ife 1
+        skipped dw 1
+    else
+        nested dw 2
+    endif
+endif
+ifndef counter
+    if 1
+        bad db 1
+    endif
+else
+    good db 2
+endif
+ifdef WIDE
+    value dd 0
+else
+    value dw 0
+endif
+data ends
+
+code segment
+begin:
+    mov ds:counter,ax
+    test ds:used,al
+    mov ds:nested,bx
+    test ds:good,al
+ifdef WIDE
+    mov ds:value,ecx
+else
+    mov ds:value,cx
+endif
+    jmp begin
+code ends
+    end begin
@@ -0,0 +1,24 @@
+; data definitions with lists of values and strings
+
+data segment
+    table dw 1,2,3,4,5,6,7,8,9,10,11,12,0ffffh,-1,100h
+    message db 'Hello; world',0dh,0ah,'$'
+    quoted db "it's",0
+    packed dw 'ab','c'
+    mixed db 1,2 dup (3,4),5
+    nested dd 2 dup (1,2 dup (0)),7
+    after db 0
+data ends
+
+code segment
+begin:
+    mov ds:table,ax
+    test ds:message,al
+    adc al,ds:quoted
+    mov ds:packed,bx
+    test ds:mixed,al
+    mov ds:nested,eax
+    adc al,ds:after
+    jmp begin
+code ends
+    end begin
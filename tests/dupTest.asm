@@ -0,0 +1,20 @@
+; duplication : nested, big counts and expressions as count
+
+data segment
+    small db 4 dup (0ffh)
+    words dw 2+1 dup ( 1234h )
+    nested db 2 dup ( 3 dup (7) )
+    big db 60000 dup (0)
+    after dd 0
+data ends
+
+code segment
+begin:
+    mov ds:words,ax
+    mov ds:after,eax
+    adc al,ds:nested
+    test ds:small,al
+    test ds:big,al
+    jmp begin
+code ends
+    end begin
@@ -0,0 +1,29 @@
+; symbolic constants : EQU can't be redefined, '=' can
+
+BUF_SIZE equ 10h
+LAST equ BUF_SIZE * 2 - 1
+step = 1
+step = step + 1
+
+data segment
+    buffer db BUF_SIZE dup (0)
+    limit dw LAST
+    steps db step,step*2
+if BUF_SIZE / 8
+    big db 1
+endif
+data ends
+
+code segment
+begin:
+    or al,BUF_SIZE
+    or cx,LAST + step
+    or al,MASK			; constant defined below
+    test ds:buffer,al
+    mov ds:limit,bx
+    adc al,ds:steps
+    jmp begin
+code ends
+
+MASK equ 0fh
+    end begin
@@ -0,0 +1,11 @@
+; include : header is lexed once and spliced in place of include line
+
+include includeTest.inc
+
+code segment
+begin:
+    div ds:limit
+    clear eax
+    test ds:mask,al
+code ends
+    end begin
@@ -0,0 +1,45 @@
+; macros : parameters, local labels and nested calls,
+; commas inside of quotes and parentheses belong to argument, macro defined inside of macro body
+
+clear macro reg
+    or reg,0
+endm
+
+store macro where,reg
+    LOCAL skip
+    jae skip
+    mov ds:where,reg
+skip:
+    clear reg
+endm
+
+fill macro name,values
+name db values
+endm
+
+setup macro reg,val
+reset macro
+    or reg,val
+endm
+    reset
+endm
+
+data segment
+    first dd 0
+    second dw 0
+    fill table1,2 dup (1,2)
+    fill msg,'a,b'
+data ends
+
+code segment
+begin:
+    store first,ecx
+    store second,bx
+again: clear al
+    setup al,1
+    adc al,ds:table1
+    adc al,ds:msg
+    reset
+    jmp again
+code ends
+    end begin
@@ -4,7 +4,7 @@ data segment
     ident2      ;; error
     ident3 dw 0 
     ident4 dw ident3  ;;error 
-    ident5 dw 0,2,3,4,5 ;;error
+    ident5 dw 0,2,3,4,5 ;; list of values
     ident6 db 0 + (-1)*14*(-1) + 0
     ident7 db -1 * 100 * -1
     mod db -1   ;; error - mod is reserved
@@ -0,0 +1,17 @@
+
+data segment
+    first db 1
+    huge dd 1073741824 dup (0)	;; error segment size exceeds 0FFFFh
+    after db 2
+data ends
+
+table segment
+    big db 0fff0h dup (1)
+    more dw 10 dup (2)		;; error segment size exceeds 0FFFFh
+table ends
+
+code segment
+begin:
+    mov ds:after,al
+code ends
+    end begin
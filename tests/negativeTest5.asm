@@ -0,0 +1,11 @@
+
+data segment
+    nest dd 100000h dup (100000h dup (100000h dup (100000h dup (0))))	;; error number of elements overflows
+    ok dw 2 dup (1,2)		;; ok
+data ends
+
+code segment
+begin:
+    mov ds:ok,ax
+code ends
+    end begin
@@ -0,0 +1,13 @@
+X equ 5
+
+data segment
+    X db 1			;; error name is already defined as symbolic constant
+    y db 2			;; ok
+data ends
+
+code segment
+begin:
+X:  jmp begin			;; error name is already defined as symbolic constant
+    mov ds:y,al
+code ends
+    end begin
@@ -0,0 +1,20 @@
+; Immediate forms of OR, translate with and without -Osize and compare listings.
+; osize-output.log holds bytes saved in every segment.
+
+data segment
+    mask db 0fh
+data ends
+
+code segment
+begin:
+    or al,7fh           ; accumulator form 0C ib in both modes
+    or ax,5             ; 83 /1 ib, imm8 is sign extended
+    or ax,-2            ; 83 /1 ib
+    or ax,200           ; 200 isn't sign extendable byte, 0D iw
+    or bx,200           ; 81 /1 iw
+    or eax,1000         ; 0D id by default, with -Osize too
+    or cx,1000          ; 81 /1 iw
+    or dx,-100          ; 83 /1 ib
+    jmp begin
+code ends
+end begin
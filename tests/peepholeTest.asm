@@ -0,0 +1,28 @@
+; Redundant commands, translate with -peephole and compare with default listing.
+; peephole-output.log lists dropped commands.
+
+data segment
+    count db 0
+    total dw 0
+data ends
+
+code segment
+begin:
+    mov byte ptr ds:[bx + si],al    ; overwritten by next store, dropped
+    mov byte ptr ds:[bx + si],cl
+    mov word ptr ds:[bx + di],ax    ; next store has other size, kept
+    mov byte ptr ds:[bx + di],cl
+    or ax,0                         ; flags set again by next or, dropped
+    or cx,0                         ; flags read by jae, kept
+    jae done
+    or dx,0                         ; flags live at label, kept
+again:
+    or bx,0                         ; flags set by test, dropped
+    test ds:total,ax
+    jmp next                        ; jump to next label, dropped
+next:
+    jmp again
+done:
+    div ds:count
+code ends
+end begin
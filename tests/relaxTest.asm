@@ -0,0 +1,43 @@
+; branch relaxation : short branches stay rel8, far ones grow to rel16
+
+data segment
+    table dd 0
+data ends
+
+code segment
+begin:
+    jmp near1           ; short forward
+    jae far1            ; too far, has to grow
+back:
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+near1:
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    or eax,0fffffh
+    mov ds:table,ecx
+far1: jmp back          ; backward, out of rel8 range
+    jmp begin           ; backward, out of rel8 range
+code ends
+    end begin
@@ -0,0 +1,29 @@
+; data layout : translate with -reorder data, variables are sorted by alignment,
+; label splits variables into runs which are reordered separately, variable right after label stays under it
+
+data segment
+    flag   db 1
+    even
+    count  dw 5
+    mode   db 2
+    align 4
+    total  dd 0
+header:
+    tag    db 'x'
+    align 4
+    buffer db 4 dup (0)
+    size1  dw 4
+data ends
+
+code segment
+begin:
+    mov ds:flag,al
+    adc ax,ds:count
+    adc al,ds:mode
+    adc eax,ds:total
+    adc al,ds:tag
+    adc al,ds:buffer
+    adc ax,ds:size1
+    jmp begin
+code ends
+end begin
@@ -0,0 +1,26 @@
+; stripping : translate with -strip, unused tables and code after unconditional jumps are dropped
+
+data segment
+    used   db 1
+    table  dw 10 dup (0)
+    count  dd 0
+    spare  db 'abc'
+data ends
+
+code segment
+begin:
+    mov ds:used,al
+    jae next
+    jmp finish
+    adc eax,ds:count        ; never reached, count is dropped with it
+next:
+    or al,1
+    jmp begin
+dead:
+    adc ax,ds:table
+    jmp dead
+finish:
+    sti
+    jmp finish
+code ends
+end begin